@@ -0,0 +1,64 @@
+package com.bookticket.user_service.benchmark;
+
+import com.bookticket.user_service.dto.UserSummary;
+import com.bookticket.user_service.entity.User;
+import com.bookticket.user_service.service.CustomUserDetails;
+import com.bookticket.user_service.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request costs on the JWT and principal paths, for one to three roles per user.
+ * Run with the gc profiler (the jmh profile default) to see allocation rate alongside throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthHotPathBenchmark {
+
+    @Param({"USER", "USER,ADMIN", "USER,ADMIN,THEATER_OWNER"})
+    public String roles;
+
+    private JwtUtils jwtUtils;
+    private User user;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = BenchmarkFixtures.jwtUtils();
+        user = BenchmarkFixtures.sampleUser(roles);
+        userDetails = new CustomUserDetails(user);
+        token = jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtUtils.extractClaim(token, claims -> claims);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtils.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public CustomUserDetails customUserDetails() {
+        return new CustomUserDetails(user);
+    }
+
+    @Benchmark
+    public UserSummary userSummaryFromUser() {
+        return UserSummary.fromUser(user);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bookticket.user_service.benchmark;
+
+import com.bookticket.user_service.configuration.JwtConfig;
+import com.bookticket.user_service.configuration.JwtKeyRing;
+import com.bookticket.user_service.entity.User;
+import com.bookticket.user_service.enums.UserRole;
+import com.bookticket.user_service.utils.JwtUtils;
+import com.bookticket.user_service.utils.StageTimers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared inputs for the benchmarks, sized like production users and tokens.
+ */
+final class BenchmarkFixtures {
+    static final String SECRET = "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJraW5nLW9ubHktMzItYnl0ZXMtbG9uZyE=";
+    static final String BCRYPT_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6bV6a1Y0Lq2Ff3E9RZr3m2K";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtConfig jwtConfig() {
+        JwtConfig config = new JwtConfig();
+        config.setJwtSecret(SECRET);
+        config.setJwtExpiration(TimeUnit.HOURS.toMillis(1));
+        return config;
+    }
+
+    // Timers are recorded as in production, into an in-memory registry
+    static JwtUtils jwtUtils() {
+        return new JwtUtils(jwtConfig(), new StageTimers(new SimpleMeterRegistry()));
+    }
+
+    // Asymmetric algorithms sign with a freshly generated key pair, configured as PEM like in production
+    static JwtUtils jwtUtils(JwtConfig.Algorithm algorithm) throws GeneralSecurityException {
+        JwtConfig config = jwtConfig();
+        config.setAlgorithm(algorithm);
+        if (algorithm != JwtConfig.Algorithm.HS256) {
+            KeyPair keyPair = JwtKeyRing.generateKeyPair(algorithm);
+            JwtConfig.SigningKey signingKey = new JwtConfig.SigningKey();
+            signingKey.setId("benchmark");
+            signingKey.setPrivateKey(pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+            signingKey.setPublicKey(pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+            config.setSigningKeys(List.of(signingKey));
+        }
+        return new JwtUtils(config, new StageTimers(new SimpleMeterRegistry()));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    static User sampleUser() {
+        return sampleUser("USER,ADMIN");
+    }
+
+    // roles: comma-separated UserRole names, e.g. "USER,THEATER_OWNER"
+    static User sampleUser(String roles) {
+        Set<UserRole> roleSet = EnumSet.noneOf(UserRole.class);
+        Arrays.stream(roles.split(",")).map(String::trim).map(UserRole::valueOf).forEach(roleSet::add);
+
+        User user = new User();
+        user.setId(123456L);
+        user.setUsername("benchmark_user");
+        user.setEmail("benchmark.user@example.com");
+        user.setPassword(BCRYPT_HASH);
+        user.setRoles(roleSet);
+        return user;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bookticket.user_service.benchmark;
+
+import com.bookticket.user_service.configuration.JwtConfig;
+import com.bookticket.user_service.service.CustomUserDetails;
+import com.bookticket.user_service.utils.JwtUtils;
+import com.bookticket.user_service.utils.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify cost per signing algorithm, through the same {@link JwtUtils} paths used by
+ * login/refresh (sign) and every authenticated request (verify). RS256 signing is the expensive
+ * case; EdDSA should sign far faster and verify at a similar or lower cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({"HS256", "RS256", "EdDSA"})
+    public String algorithm;
+
+    private JwtUtils jwtUtils;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        jwtUtils = BenchmarkFixtures.jwtUtils(JwtConfig.Algorithm.valueOf(algorithm));
+        userDetails = new CustomUserDetails(BenchmarkFixtures.sampleUser());
+        token = jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtUtils.verify(token);
+    }
+}
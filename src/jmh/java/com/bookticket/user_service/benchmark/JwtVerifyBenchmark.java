@@ -0,0 +1,49 @@
+package com.bookticket.user_service.benchmark;
+
+import com.bookticket.user_service.service.CustomUserDetails;
+import com.bookticket.user_service.utils.JwtUtils;
+import com.bookticket.user_service.utils.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old verify path (derive the HMAC key and build a parser per call)
+ * with the cached key and parser in {@link JwtUtils}. Run with {@code -prof gc}
+ * to see allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = BenchmarkFixtures.jwtUtils();
+        token = jwtUtils.generateToken(new CustomUserDetails(BenchmarkFixtures.sampleUser()));
+    }
+
+    @Benchmark
+    public Claims verifyPerCallKey() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(BenchmarkFixtures.SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCachedParser() {
+        return jwtUtils.verify(token);
+    }
+}
@@ -0,0 +1,40 @@
+package com.bookticket.user_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt encode and verify latency at the costs we are likely to run with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(strength);
+        encoded = encoder.encode("correct-horse-battery");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("correct-horse-battery");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("correct-horse-battery", encoded);
+    }
+}
@@ -0,0 +1,71 @@
+package com.bookticket.user_service.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder whose cost is either configured or calibrated at startup, never below
+ * {@link #MIN_STRENGTH}, and which asks for a re-hash when a stored hash is cheaper than that cost.
+ * Stronger hashes are kept: a slower or busier instance calibrating lower must not weaken them.
+ */
+@Slf4j
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    // BCrypt's own default; calibration on slow or contended hardware must not go below it
+    public static final int MIN_STRENGTH = 10;
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public static AdaptiveBCryptPasswordEncoder calibrated(PasswordHashingConfig config) {
+        if (config.getStrength() != null) {
+            int strength = Math.max(MIN_STRENGTH, config.getStrength());
+            if (strength != config.getStrength()) {
+                log.warn("Configured BCrypt strength {} is below the minimum; using {}", config.getStrength(), strength);
+            }
+            log.info("Using configured BCrypt strength {}", strength);
+            return new AdaptiveBCryptPasswordEncoder(strength);
+        }
+        long targetNanos = config.getTargetLatency().toNanos();
+        int minStrength = Math.max(MIN_STRENGTH, config.getMinStrength());
+        int chosen = minStrength;
+        // Warm up the JIT so the first measurement is not dominated by interpretation
+        new BCryptPasswordEncoder(minStrength).encode("calibration-warmup");
+        for (int candidate = minStrength; candidate <= config.getMaxStrength(); candidate++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(candidate).encode("calibration-sample");
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > targetNanos) {
+                break;
+            }
+            chosen = candidate;
+        }
+        log.info("Calibrated BCrypt strength {} for target latency {}", chosen, config.getTargetLatency());
+        return new AdaptiveBCryptPasswordEncoder(chosen);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        if (!matcher.find()) {
+            return false;
+        }
+        int cost = Integer.parseInt(matcher.group(1));
+        return cost < strength;
+    }
+}
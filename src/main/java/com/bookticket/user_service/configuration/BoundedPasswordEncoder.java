@@ -0,0 +1,156 @@
+package com.bookticket.user_service.configuration;
+
+import com.bookticket.user_service.exception.TooManyRequestsException;
+import com.bookticket.user_service.utils.StageTimers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a fixed-size pool with a bounded queue, so a login
+ * or registration burst cannot occupy every request thread with BCrypt. When the queue is full
+ * interactive calls fail fast with {@link TooManyRequestsException}; bulk encoding falls back to
+ * the calling thread.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final StageTimers stageTimers;
+    private final TaskDecorator taskDecorator;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingConfig config, MeterRegistry meterRegistry,
+                                  StageTimers stageTimers, TaskDecorator taskDecorator) {
+        this.delegate = delegate;
+        this.stageTimers = stageTimers;
+        this.taskDecorator = taskDecorator;
+        int poolSize = Math.max(1, config.getPoolSize());
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Publishes executor.queued (queue depth), executor.active and friends
+        new ExecutorServiceMetrics(executor, "password-hash", Tags.empty()).bindTo(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Hash requests rejected because the hashing pool was saturated")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit("password.encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit("password.match", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Encodes many passwords in parallel for bulk work, keeping at most one task per pool thread
+     * in flight so the bulk job does not fill the queue that interactive logins depend on. When that
+     * queue is full anyway, the hash runs on the calling thread instead of failing the batch.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int window = executor.getMaximumPoolSize();
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        for (int from = 0; from < rawPasswords.size(); from += window) {
+            List<FutureTask<String>> inFlight = new ArrayList<>(window);
+            try {
+                for (CharSequence rawPassword : rawPasswords.subList(from, Math.min(from + window, rawPasswords.size()))) {
+                    inFlight.add(scheduleOrRun("password.encode", () -> delegate.encode(rawPassword)));
+                }
+                for (FutureTask<String> task : inFlight) {
+                    encoded.add(await(task));
+                }
+            } catch (RuntimeException | Error ex) {
+                // Nobody will read the rest of the window; free the pool for logins
+                inFlight.forEach(task -> task.cancel(true));
+                throw ex;
+            }
+        }
+        return encoded;
+    }
+
+    private <T> T submit(String stage, Supplier<T> work) {
+        return await(schedule(stage, work));
+    }
+
+    private <T> FutureTask<T> schedule(String stage, Supplier<T> work) {
+        FutureTask<T> future = newTask(stage, work);
+        if (!tryExecute(future)) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many concurrent authentication requests, please retry shortly");
+        }
+        return future;
+    }
+
+    // The caller-runs fallback also throttles the bulk job to the speed of its own thread
+    private <T> FutureTask<T> scheduleOrRun(String stage, Supplier<T> work) {
+        FutureTask<T> future = newTask(stage, work);
+        if (!tryExecute(future)) {
+            future.run();
+        }
+        return future;
+    }
+
+    private <T> FutureTask<T> newTask(String stage, Supplier<T> work) {
+        // The request context is thread-bound, so resolve the endpoint tag before leaving the request thread
+        String endpoint = stageTimers.currentEndpoint();
+        return new FutureTask<>(() -> stageTimers.record(stage, endpoint, work));
+    }
+
+    private boolean tryExecute(FutureTask<?> future) {
+        try {
+            // Decorated so hashing-pool log lines keep the caller's requestId and trace context
+            executor.execute(taskDecorator.decorate(future));
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    private static <T> T await(FutureTask<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Password hashing failed", ex.getCause());
+        }
+    }
+}
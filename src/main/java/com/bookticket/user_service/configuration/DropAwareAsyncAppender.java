@@ -0,0 +1,217 @@
+package com.bookticket.user_service.configuration;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, batching async appender for remote sinks such as Loki. Logging threads only enqueue
+ * the event, and a single worker delivers batches to the attached appenders. When the queue is full,
+ * {@link DropPolicy} decides what is lost, so a slow or unreachable sink never adds latency to requests.
+ * Dropped and delayed events are counted per appender in {@link #stats()} and exported as
+ * metrics by {@link LogShippingMetrics}.
+ */
+public class DropAwareAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public enum DropPolicy {
+        /** Discard the event being logged. */
+        DROP_NEWEST,
+        /** Discard the oldest queued event to make room. */
+        DROP_OLDEST,
+        /** Wait up to maxBlockMillis for room, then discard the event being logged. */
+        BLOCK
+    }
+
+    private static final Map<String, Stats> STATS = new ConcurrentHashMap<>();
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private int queueSize = 2048;
+    private int batchSize = 256;
+    private DropPolicy dropPolicy = DropPolicy.DROP_NEWEST;
+    private long maxBlockMillis = 10;
+    private long maxFlushMillis = 1000;
+
+    private BlockingQueue<ILoggingEvent> queue;
+    private Stats stats;
+    private Thread worker;
+
+    public static Map<String, Stats> stats() {
+        return STATS;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        stats = STATS.computeIfAbsent(getName(), name -> new Stats());
+        stats.queue = queue;
+        worker = new Thread(this::drain, "log-shipper-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        worker.interrupt();
+        try {
+            worker.join(maxFlushMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Freeze MDC, message and thread name now; they are read later on the worker thread
+        event.prepareForDeferredProcessing();
+        if (queue.offer(event)) {
+            return;
+        }
+        switch (dropPolicy) {
+            case DROP_OLDEST -> {
+                if (queue.poll() != null) {
+                    stats.dropped.incrementAndGet();
+                }
+                if (!queue.offer(event)) {
+                    stats.dropped.incrementAndGet();
+                }
+            }
+            case BLOCK -> {
+                stats.delayed.incrementAndGet();
+                try {
+                    if (!queue.offer(event, maxBlockMillis, TimeUnit.MILLISECONDS)) {
+                        stats.dropped.incrementAndGet();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    stats.dropped.incrementAndGet();
+                }
+            }
+            default -> stats.dropped.incrementAndGet();
+        }
+    }
+
+    private void drain() {
+        List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+        try {
+            while (isStarted()) {
+                ILoggingEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    deliver(batch);
+                }
+            }
+        } catch (InterruptedException ex) {
+            // Stopping: flush what is left without waiting for more
+        }
+        queue.drainTo(batch);
+        deliver(batch);
+    }
+
+    private void deliver(List<ILoggingEvent> batch) {
+        for (ILoggingEvent event : batch) {
+            try {
+                appenders.appendLoopOnAppenders(event);
+            } catch (RuntimeException ex) {
+                addError("Downstream appender failed", ex);
+            }
+        }
+        batch.clear();
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void setDropPolicy(DropPolicy dropPolicy) {
+        this.dropPolicy = dropPolicy;
+    }
+
+    public void setMaxBlockMillis(long maxBlockMillis) {
+        this.maxBlockMillis = maxBlockMillis;
+    }
+
+    public void setMaxFlushMillis(long maxFlushMillis) {
+        this.maxFlushMillis = maxFlushMillis;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+
+    public static final class Stats {
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong delayed = new AtomicLong();
+        private volatile BlockingQueue<ILoggingEvent> queue;
+
+        public long dropped() {
+            return dropped.get();
+        }
+
+        public long delayed() {
+            return delayed.get();
+        }
+
+        public int queueDepth() {
+            BlockingQueue<ILoggingEvent> current = queue;
+            return current == null ? 0 : current.size();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.bookticket.user_service.configuration;
+
+import com.bookticket.user_service.utils.StageTimers;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the calling endpoint to Spring Data's {@code spring.data.repository.invocations} timer,
+ * so each repository call can be attributed to the request that made it.
+ */
+@Component
+public class EndpointRepositoryTagsProvider extends DefaultRepositoryTagsProvider {
+    private final StageTimers stageTimers;
+
+    public EndpointRepositoryTagsProvider(StageTimers stageTimers) {
+        this.stageTimers = stageTimers;
+    }
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        return Tags.of(super.repositoryTags(invocation)).and("endpoint", stageTimers.currentEndpoint());
+    }
+}
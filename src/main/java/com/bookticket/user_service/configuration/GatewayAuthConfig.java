@@ -0,0 +1,77 @@
+package com.bookticket.user_service.configuration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.gateway-auth")
+@Getter
+@Setter
+@Service
+@Slf4j
+public class GatewayAuthConfig {
+    static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    // When true, requests are authenticated from the gateway's X-User-* headers and bearer tokens
+    // are only parsed on /api/v1/auth/**
+    private boolean enabled;
+    // CIDRs the gateway connects from, e.g. 10.0.0.0/8; empty skips the network check
+    private List<String> trustedProxies = new ArrayList<>();
+    // Base64 HMAC-SHA256 key shared with the gateway; empty skips the signature check
+    private String hmacSecret;
+    // How old an X-User-Timestamp may be before the signed headers are refused as a replay
+    private Duration maxSkew = Duration.ofSeconds(30);
+
+    // Parsed when bound, so a malformed CIDR or secret fails startup (or the rebind) instead of every request
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile List<IpAddressMatcher> proxyMatchers = List.of();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile SecretKeySpec hmacKey;
+
+    public void setTrustedProxies(List<String> trustedProxies) {
+        this.proxyMatchers = trustedProxies.stream().map(IpAddressMatcher::new).toList();
+        this.trustedProxies = trustedProxies;
+    }
+
+    public void setHmacSecret(String hmacSecret) {
+        SecretKeySpec key = null;
+        if (hmacSecret != null && !hmacSecret.isBlank()) {
+            try {
+                key = new SecretKeySpec(Base64.getDecoder().decode(hmacSecret.trim()), HMAC_ALGORITHM);
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("app.gateway-auth.hmac-secret is not valid Base64", ex);
+            }
+        }
+        this.hmacKey = key;
+        this.hmacSecret = hmacSecret;
+    }
+
+    public List<IpAddressMatcher> proxyMatchers() {
+        return proxyMatchers;
+    }
+
+    public SecretKeySpec hmacKey() {
+        return hmacKey;
+    }
+
+    @PostConstruct
+    void warnIfUntrusted() {
+        if (enabled && proxyMatchers.isEmpty() && hmacKey == null) {
+            // Fail closed: without either check anyone could forge the headers
+            log.warn("app.gateway-auth is enabled without trusted-proxies or hmac-secret; ignoring X-User-* headers");
+        }
+    }
+}
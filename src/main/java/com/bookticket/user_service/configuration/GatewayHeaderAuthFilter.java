@@ -0,0 +1,180 @@
+package com.bookticket.user_service.configuration;
+
+import com.bookticket.user_service.service.CustomUserDetails;
+import com.bookticket.user_service.service.TokenVersionRegistry;
+import com.bookticket.user_service.service.UserDetailsServiceImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Authenticates requests the API gateway has already authenticated, from the X-User-* headers it
+ * forwards. No token is parsed and, when the gateway sends the email and username, no user is loaded.
+ * The headers are only trusted from the configured proxy networks and/or with a valid HMAC signature;
+ * otherwise they are ignored and the request continues unauthenticated.
+ */
+@Component
+@Slf4j
+public class GatewayHeaderAuthFilter extends OncePerRequestFilter {
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_ROLES_HEADER = "X-User-Roles";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String USER_NAME_HEADER = "X-User-Name";
+    public static final String TOKEN_VERSION_HEADER = "X-User-Token-Version";
+    public static final String TIMESTAMP_HEADER = "X-User-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-User-Signature";
+
+    private final GatewayAuthConfig gatewayAuthConfig;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    public GatewayHeaderAuthFilter(GatewayAuthConfig gatewayAuthConfig, UserDetailsServiceImpl userDetailsService,
+                                   TokenVersionRegistry tokenVersionRegistry) {
+        this.gatewayAuthConfig = gatewayAuthConfig;
+        this.userDetailsService = userDetailsService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !gatewayAuthConfig.isEnabled() || request.getHeader(USER_ID_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        if (SecurityContextHolder.getContext().getAuthentication() == null && isTrusted(request)) {
+            CustomUserDetails userDetails = authenticate(request);
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                authToken.setDetails(
+                        new WebAuthenticationDetailsSource().buildDetails(request)
+                );
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private CustomUserDetails authenticate(HttpServletRequest request) {
+        long userId;
+        Long tokenVersion;
+        try {
+            userId = Long.parseLong(request.getHeader(USER_ID_HEADER));
+            String version = request.getHeader(TOKEN_VERSION_HEADER);
+            tokenVersion = version == null ? null : Long.parseLong(version);
+        } catch (NumberFormatException ex) {
+            log.debug("Ignoring gateway headers with a non-numeric user id or token version");
+            return null;
+        }
+        // Checked against the forwarded version, since a principal loaded below carries the user's current one.
+        // Without a forwarded version the gateway's own revocation check is all there is.
+        if (tokenVersion != null && !tokenVersionRegistry.isCurrent(userId, tokenVersion)) {
+            return null;
+        }
+
+        String email = request.getHeader(USER_EMAIL_HEADER);
+        String username = request.getHeader(USER_NAME_HEADER);
+        if (email == null || username == null) {
+            // Older gateway routes only forward id and roles; the principal then comes from the user cache
+            try {
+                return (CustomUserDetails) userDetailsService.loadUserById(userId);
+            } catch (UsernameNotFoundException ex) {
+                return null;
+            }
+        }
+        return new CustomUserDetails(userId, email, username, parseRoles(request.getHeader(USER_ROLES_HEADER)),
+                tokenVersion == null ? 0L : tokenVersion);
+    }
+
+    private static List<GrantedAuthority> parseRoles(String roles) {
+        if (roles == null || roles.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(roles.split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    private boolean isTrusted(HttpServletRequest request) {
+        List<IpAddressMatcher> proxies = gatewayAuthConfig.proxyMatchers();
+        SecretKeySpec hmacKey = gatewayAuthConfig.hmacKey();
+        if (proxies.isEmpty() && hmacKey == null) {
+            // Fail closed; GatewayAuthConfig warns about this once when it is bound
+            return false;
+        }
+        if (!proxies.isEmpty() && proxies.stream().noneMatch(proxy -> proxy.matches(request.getRemoteAddr()))) {
+            log.debug("Ignoring gateway headers from untrusted address {}", request.getRemoteAddr());
+            return false;
+        }
+        return hmacKey == null || hasValidSignature(request, hmacKey);
+    }
+
+    private boolean hasValidSignature(HttpServletRequest request, SecretKeySpec hmacKey) {
+        String timestamp = request.getHeader(TIMESTAMP_HEADER);
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        if (timestamp == null || signature == null) {
+            return false;
+        }
+        try {
+            long age = System.currentTimeMillis() - Long.parseLong(timestamp);
+            if (Math.abs(age) > gatewayAuthConfig.getMaxSkew().toMillis()) {
+                log.debug("Ignoring gateway headers with a stale timestamp");
+                return false;
+            }
+            Mac mac = Mac.getInstance(GatewayAuthConfig.HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            byte[] expected = mac.doFinal(signedContent(request, timestamp).getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.isEqual(expected, Base64.getDecoder().decode(signature));
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            log.debug("Ignoring gateway headers with a malformed signature", ex);
+            return false;
+        }
+    }
+
+    /**
+     * The gateway signs these headers, newline-separated and empty when absent, in this order.
+     */
+    static String signedContent(HttpServletRequest request, String timestamp) {
+        return String.join("\n",
+                headerOrEmpty(request, USER_ID_HEADER),
+                headerOrEmpty(request, USER_ROLES_HEADER),
+                headerOrEmpty(request, USER_EMAIL_HEADER),
+                headerOrEmpty(request, USER_NAME_HEADER),
+                headerOrEmpty(request, TOKEN_VERSION_HEADER),
+                timestamp);
+    }
+
+    private static String headerOrEmpty(HttpServletRequest request, String name) {
+        String value = request.getHeader(name);
+        return value == null ? "" : value;
+    }
+}
@@ -1,12 +1,17 @@
 package com.bookticket.user_service.configuration;
 
 import com.bookticket.user_service.service.CustomUserDetails;
+import com.bookticket.user_service.service.TokenVersionRegistry;
 import com.bookticket.user_service.service.UserDetailsServiceImpl;
 import com.bookticket.user_service.utils.JwtUtils;
+import com.bookticket.user_service.utils.StageTimers;
+import com.bookticket.user_service.utils.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,37 +22,61 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
+@Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
+    private static final String AUTH_PATH_PREFIX = "/api/v1/auth/";
 
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final JwtConfig jwtConfig;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final StageTimers stageTimers;
+    private final GatewayAuthConfig gatewayAuthConfig;
 
-    public JwtAuthFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService) {
+    public JwtAuthFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService,
+                         JwtConfig jwtConfig, TokenVersionRegistry tokenVersionRegistry, StageTimers stageTimers,
+                         GatewayAuthConfig gatewayAuthConfig) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.jwtConfig = jwtConfig;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.stageTimers = stageTimers;
+        this.gatewayAuthConfig = gatewayAuthConfig;
+    }
+
+    // Behind the gateway only the auth endpoints see raw bearer tokens; everything else uses GatewayHeaderAuthFilter
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return gatewayAuthConfig.isEnabled() && !request.getServletPath().startsWith(AUTH_PATH_PREFIX);
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
-        // TO DO - Apply auth filter only on login and register
-        // Rest of the APIs authentication is done by api gateway
-        // Use - X-User-Id and X-User-Roles headers [To Set Authentication]
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String subject;
+        final VerifiedToken token;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        subject = jwtUtils.extractSubject(jwt);
+        // Parse and verify the signature once, then reuse the claims for the rest of the request
+        try {
+            token = stageTimers.record("jwt.verify", () -> jwtUtils.verify(authHeader.substring(7)));
+        } catch (JwtException | IllegalArgumentException ex) {
+            // Expired or invalid: continue unauthenticated, so /login and /refresh still work and
+            // protected endpoints answer 401 through the entry point
+            log.debug("Ignoring invalid bearer token: {}", ex.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+        request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, token);
 
-        if (subject != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            CustomUserDetails userDetails = (CustomUserDetails) this.userDetailsService.loadUserById(Long.parseLong(subject));
-            if (jwtUtils.validateToken(jwt, userDetails)) {
+        if (token.subject() != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && tokenVersionRegistry.isCurrent(token.userId(), token.tokenVersionOrZero())) {
+            CustomUserDetails userDetails = loadUserDetails(token);
+            if (jwtUtils.validateToken(token, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -61,4 +90,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private CustomUserDetails loadUserDetails(VerifiedToken token) {
+        if (jwtConfig.isClaimsTrusted() && token.hasPrincipalClaims()) {
+            return new CustomUserDetails(token);
+        }
+        return (CustomUserDetails) this.userDetailsService.loadUserById(token.userId());
+    }
 }
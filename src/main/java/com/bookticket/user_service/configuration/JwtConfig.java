@@ -2,21 +2,106 @@ package com.bookticket.user_service.configuration;
 
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @ConfigurationProperties(prefix = "app.jwt")
 @Getter
 @Setter
 @Service
 public class JwtConfig {
+    // HMAC secret for HS256; in RS256/EdDSA mode only used to verify tokens issued before the switch
     private String jwtSecret;
     private long jwtExpiration;
+    // Lifetime of the opaque refresh token, in milliseconds; jwtExpiration can then stay short
+    private long refreshExpiration = Duration.ofDays(14).toMillis();
+    // When true, the request principal is built from verified claims instead of loading the user row
+    private boolean claimsTrusted;
+
+    private Algorithm algorithm = Algorithm.HS256;
+    // RS256/EdDSA keys as PEM; the first entry with a private key signs, all public keys verify
+    private List<SigningKey> signingKeys = new ArrayList<>();
+    // Local development only: sign RS256/EdDSA tokens with a per-process generated key when no private
+    // key is configured. Otherwise a missing key fails startup, since such tokens verify on no other instance.
+    private boolean allowEphemeralKey;
+
+    // Derived once per secret value; cleared when the config server rebinds a rotated secret
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile SecretKey signingKey;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile JwtKeyRing keyRing;
+
+    public enum Algorithm {
+        HS256,
+        RS256,
+        EdDSA
+    }
+
+    @Getter
+    @Setter
+    public static class SigningKey {
+        // Published as the JWK "kid" and written to the header of every token the key signs
+        private String id;
+        private String privateKey;
+        private String publicKey;
+    }
+
+    public void setJwtSecret(String jwtSecret) {
+        this.jwtSecret = jwtSecret;
+        this.signingKey = null;
+    }
+
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+        this.keyRing = null;
+    }
+
+    public void setSigningKeys(List<SigningKey> signingKeys) {
+        this.signingKeys = signingKeys;
+        this.keyRing = null;
+    }
+
+    public void setAllowEphemeralKey(boolean allowEphemeralKey) {
+        this.allowEphemeralKey = allowEphemeralKey;
+        this.keyRing = null;
+    }
+
+    public boolean hasJwtSecret() {
+        return jwtSecret != null && !jwtSecret.isBlank();
+    }
+
+    public JwtKeyRing getKeyRing() {
+        JwtKeyRing ring = keyRing;
+        if (ring == null) {
+            // Locked so concurrent first use cannot build two rings, which with a generated key would sign
+            // with one and publish the other
+            synchronized (this) {
+                ring = keyRing;
+                if (ring == null) {
+                    ring = JwtKeyRing.from(algorithm, signingKeys, allowEphemeralKey);
+                    keyRing = ring;
+                }
+            }
+        }
+        return ring;
+    }
+
     public SecretKey getJwtSecret() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+            signingKey = key;
+        }
+        return key;
     }
 }
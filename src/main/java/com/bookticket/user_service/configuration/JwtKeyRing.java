@@ -0,0 +1,190 @@
+package com.bookticket.user_service.configuration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Asymmetric signing keys derived from {@code app.jwt.signing-keys}. The first key with a private key
+ * signs new tokens; every listed public key verifies tokens by their {@code kid} header and is published
+ * in the JWKS, so a key being introduced or retired can stay listed without signing.
+ */
+@Slf4j
+public final class JwtKeyRing {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    // Ed25519 X.509 encodings are a fixed 12-byte prefix followed by the raw 32-byte key
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    // Declared after the constants its constructor uses
+    static final JwtKeyRing SYMMETRIC = new JwtKeyRing(JwtConfig.Algorithm.HS256, null, null, Map.of());
+
+    private final JwtConfig.Algorithm algorithm;
+    private final String activeKeyId;
+    private final PrivateKey signingKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final String jwksJson;
+    private final String jwksEtag;
+
+    private JwtKeyRing(JwtConfig.Algorithm algorithm, String activeKeyId, PrivateKey signingKey,
+                       Map<String, PublicKey> verificationKeys) {
+        this.algorithm = algorithm;
+        this.activeKeyId = activeKeyId;
+        this.signingKey = signingKey;
+        this.verificationKeys = verificationKeys;
+        this.jwksJson = toJwks(algorithm, verificationKeys);
+        this.jwksEtag = '"' + HexFormat.of().formatHex(sha256(jwksJson), 0, 8) + '"';
+    }
+
+    static JwtKeyRing from(JwtConfig.Algorithm algorithm, List<JwtConfig.SigningKey> keys, boolean allowEphemeralKey) {
+        if (algorithm == JwtConfig.Algorithm.HS256) {
+            return SYMMETRIC;
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm(algorithm));
+            Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+            String activeKeyId = null;
+            PrivateKey signingKey = null;
+            for (JwtConfig.SigningKey key : keys) {
+                verificationKeys.put(key.getId(), keyFactory.generatePublic(new X509EncodedKeySpec(pemBytes(key.getPublicKey()))));
+                if (signingKey == null && key.getPrivateKey() != null && !key.getPrivateKey().isBlank()) {
+                    signingKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(pemBytes(key.getPrivateKey())));
+                    activeKeyId = key.getId();
+                }
+            }
+            if (signingKey == null) {
+                if (!allowEphemeralKey) {
+                    throw new IllegalStateException("app.jwt.algorithm is " + algorithm + " but no entry in app.jwt.signing-keys "
+                            + "has a private key; configure one, or set app.jwt.allow-ephemeral-key for local development");
+                }
+                return ephemeral(algorithm, verificationKeys);
+            }
+            return new JwtKeyRing(algorithm, activeKeyId, signingKey, Map.copyOf(verificationKeys));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalArgumentException("Invalid app.jwt.signing-keys for " + algorithm, ex);
+        }
+    }
+
+    // Lets a single local instance run without key material; tokens do not survive a restart
+    private static JwtKeyRing ephemeral(JwtConfig.Algorithm algorithm, Map<String, PublicKey> verificationKeys)
+            throws GeneralSecurityException {
+        KeyPair keyPair = generateKeyPair(algorithm);
+        String keyId = "ephemeral-" + UUID.randomUUID();
+        log.warn("No private key configured in app.jwt.signing-keys; signing {} tokens with generated key {}. "
+                + "Tokens will not verify on other instances or after a restart.", algorithm, keyId);
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        keys.put(keyId, keyPair.getPublic());
+        keys.putAll(verificationKeys);
+        return new JwtKeyRing(algorithm, keyId, keyPair.getPrivate(), Map.copyOf(keys));
+    }
+
+    public static KeyPair generateKeyPair(JwtConfig.Algorithm algorithm) throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm(algorithm));
+        if (algorithm == JwtConfig.Algorithm.RS256) {
+            generator.initialize(2048);
+        }
+        return generator.generateKeyPair();
+    }
+
+    public boolean isAsymmetric() {
+        return algorithm != JwtConfig.Algorithm.HS256;
+    }
+
+    public String activeKeyId() {
+        return activeKeyId;
+    }
+
+    public PrivateKey signingKey() {
+        return signingKey;
+    }
+
+    public SignatureAlgorithm signatureAlgorithm() {
+        return algorithm == JwtConfig.Algorithm.RS256 ? Jwts.SIG.RS256 : Jwts.SIG.EdDSA;
+    }
+
+    public PublicKey verificationKey(String keyId) {
+        return verificationKeys.get(keyId);
+    }
+
+    public String jwksJson() {
+        return jwksJson;
+    }
+
+    public String jwksEtag() {
+        return jwksEtag;
+    }
+
+    private static String keyAlgorithm(JwtConfig.Algorithm algorithm) {
+        return algorithm == JwtConfig.Algorithm.RS256 ? "RSA" : "Ed25519";
+    }
+
+    private static byte[] pemBytes(String pem) {
+        String body = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+
+    private static String toJwks(JwtConfig.Algorithm algorithm, Map<String, PublicKey> keys) {
+        List<Map<String, String>> jwks = new ArrayList<>(keys.size());
+        keys.forEach((keyId, key) -> {
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kid", keyId);
+            jwk.put("use", "sig");
+            if (key instanceof RSAPublicKey rsaKey) {
+                jwk.put("kty", "RSA");
+                jwk.put("alg", "RS256");
+                jwk.put("n", BASE64_URL.encodeToString(unsigned(rsaKey.getModulus())));
+                jwk.put("e", BASE64_URL.encodeToString(unsigned(rsaKey.getPublicExponent())));
+            } else {
+                byte[] encoded = key.getEncoded();
+                jwk.put("kty", "OKP");
+                jwk.put("alg", "EdDSA");
+                jwk.put("crv", "Ed25519");
+                jwk.put("x", BASE64_URL.encodeToString(
+                        Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length)));
+            }
+            jwks.add(jwk);
+        });
+        try {
+            return JSON.writeValueAsString(Map.of("keys", jwks));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize JWKS for " + algorithm, ex);
+        }
+    }
+
+    // JWK integers are big-endian without the sign byte BigInteger adds for a set high bit
+    private static byte[] unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        return bytes.length > 1 && bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.bookticket.user_service.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the counters of every {@link DropAwareAsyncAppender} configured in logback-spring.xml.
+ */
+@Component
+public class LogShippingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        DropAwareAsyncAppender.stats().forEach((appender, stats) -> {
+            FunctionCounter.builder("logging.async.dropped", stats, DropAwareAsyncAppender.Stats::dropped)
+                    .description("Log events discarded because the shipping queue was full")
+                    .tag("appender", appender)
+                    .register(registry);
+            FunctionCounter.builder("logging.async.delayed", stats, DropAwareAsyncAppender.Stats::delayed)
+                    .description("Log events whose caller had to wait for room in the shipping queue")
+                    .tag("appender", appender)
+                    .register(registry);
+            Gauge.builder("logging.async.queue.depth", stats, DropAwareAsyncAppender.Stats::queueDepth)
+                    .description("Log events waiting to be shipped")
+                    .tag("appender", appender)
+                    .register(registry);
+        });
+    }
+}
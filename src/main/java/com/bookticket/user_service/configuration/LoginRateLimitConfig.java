@@ -0,0 +1,32 @@
+package com.bookticket.user_service.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.login-rate-limit")
+@Getter
+@Setter
+@Service
+public class LoginRateLimitConfig {
+    private boolean enabled = true;
+    // Off until the client address is known: behind the gateway every login arrives from its address.
+    // Enable together with trustedProxies, or when clients connect directly.
+    private boolean addressLimitEnabled;
+    // Peers whose X-Forwarded-For is honoured, e.g. the gateway's 10.0.0.0/8; the client is the
+    // rightmost forwarded address that is not itself one of these
+    private List<String> trustedProxies = new ArrayList<>();
+    // Every login attempt from an address takes a token; a burst of ipCapacity, then one per ipRefill
+    private int ipCapacity = 20;
+    private Duration ipRefill = Duration.ofSeconds(3);
+    // Every attempt against an account takes a token up front; it is refunded if the login succeeds
+    private int accountCapacity = 5;
+    private Duration accountRefill = Duration.ofMinutes(1);
+    // Upper bound on tracked addresses and accounts each; idle buckets expire once they would be full again
+    private long maxEntries = 100_000;
+}
@@ -0,0 +1,44 @@
+package com.bookticket.user_service.configuration;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Carries the submitting thread's MDC (requestId, traceId, spanId) and its Micrometer
+ * observation/tracing context into work run on another thread. Spring Boot applies it to the
+ * application task executor ({@code @Async}, including virtual threads), and
+ * {@link BoundedPasswordEncoder} applies it to the hashing pool.
+ */
+@Component
+public class MdcTaskDecorator implements TaskDecorator {
+    private final TaskDecorator contextPropagation = new ContextPropagatingTaskDecorator();
+
+    @Override
+    @NonNull
+    public Runnable decorate(@NonNull Runnable runnable) {
+        Runnable withObservation = contextPropagation.decorate(runnable);
+        Map<String, String> submitterContext = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> workerContext = MDC.getCopyOfContextMap();
+            setContext(submitterContext);
+            try {
+                withObservation.run();
+            } finally {
+                setContext(workerContext);
+            }
+        };
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.bookticket.user_service.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.password-hashing")
+@Getter
+@Setter
+@Service
+public class PasswordHashingConfig {
+    // BCrypt is CPU bound, so more threads than cores only adds contention
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+    // Requests beyond pool + queue are rejected with 429 instead of piling up on request threads
+    private int queueCapacity = 64;
+    // Fixed BCrypt cost; when unset the cost is calibrated at startup against targetLatency
+    private Integer strength;
+    private Duration targetLatency = Duration.ofMillis(250);
+    // Raised to AdaptiveBCryptPasswordEncoder.MIN_STRENGTH if set lower
+    private int minStrength = 10;
+    private int maxStrength = 14;
+}
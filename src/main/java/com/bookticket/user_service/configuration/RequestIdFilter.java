@@ -12,13 +12,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class RequestIdFilter extends OncePerRequestFilter {
     private static final String HEADER_NAME = "X-Request-ID";
     private static final String MDC_KEY = "requestId";
+    // Random once per process so ids from different instances cannot collide
+    private static final String NODE_ID = String.format("%08x", new SecureRandom().nextInt());
+    private static final AtomicLong SEQUENCE = new AtomicLong();
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -29,7 +33,7 @@ public class RequestIdFilter extends OncePerRequestFilter {
 
             // (Optional: Generate if missing, useful for local testing without Gateway)
             if (requestId == null || requestId.isEmpty()) {
-                requestId = "generated-" + UUID.randomUUID();
+                requestId = nextRequestId();
             }
 
             // 2. Add to MDC for logging
@@ -41,4 +45,11 @@ public class RequestIdFilter extends OncePerRequestFilter {
             MDC.remove(MDC_KEY);
         }
     }
+
+    // Time-ordered and unique per node: generated-<epoch millis hex>-<node>-<sequence>, no SecureRandom per request
+    static String nextRequestId() {
+        return "generated-" + Long.toHexString(System.currentTimeMillis())
+                + '-' + NODE_ID
+                + '-' + Long.toHexString(SEQUENCE.incrementAndGet());
+    }
 }
@@ -1,6 +1,8 @@
 package com.bookticket.user_service.configuration;
 
 import com.bookticket.user_service.service.UserDetailsServiceImpl;
+import com.bookticket.user_service.utils.StageTimers;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,7 +14,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,16 +24,30 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final GatewayHeaderAuthFilter gatewayHeaderAuthFilter;
     private final UserDetailsServiceImpl userDetailsService;
+    private final PasswordHashingConfig passwordHashingConfig;
+    private final MeterRegistry meterRegistry;
+    private final StageTimers stageTimers;
+    private final MdcTaskDecorator mdcTaskDecorator;
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter, UserDetailsServiceImpl userDetailsService) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter, GatewayHeaderAuthFilter gatewayHeaderAuthFilter,
+                          UserDetailsServiceImpl userDetailsService,
+                          PasswordHashingConfig passwordHashingConfig, MeterRegistry meterRegistry,
+                          StageTimers stageTimers, MdcTaskDecorator mdcTaskDecorator) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.gatewayHeaderAuthFilter = gatewayHeaderAuthFilter;
         this.userDetailsService = userDetailsService;
+        this.passwordHashingConfig = passwordHashingConfig;
+        this.meterRegistry = meterRegistry;
+        this.stageTimers = stageTimers;
+        this.mdcTaskDecorator = mdcTaskDecorator;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(AdaptiveBCryptPasswordEncoder.calibrated(passwordHashingConfig),
+                passwordHashingConfig, meterRegistry, stageTimers, mdcTaskDecorator);
     }
 
     @Bean
@@ -40,6 +55,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Re-hashes the stored password after a successful login when its cost no longer matches
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -64,7 +81,9 @@ public class SecurityConfig {
             // Other public endpoints
             "/api/v1/auth/**",
             "/actuator/**",
-            "/api/v1/users/*/email"
+            "/api/v1/users/*/email",
+            "/api/v1/users/emails",
+            "/.well-known/jwks.json"
     };
 
     @Bean
@@ -78,6 +97,7 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(gatewayHeaderAuthFilter, JwtAuthFilter.class)
                 .build();
     }
 }
@@ -0,0 +1,19 @@
+package com.bookticket.user_service.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.user-cache")
+@Getter
+@Setter
+@Service
+public class UserCacheConfig {
+    private boolean enabled = true;
+    // Approximate heap ceiling shared by the id and email indexes; keep well inside -Xmx
+    private long maxBytes = 8 * 1024 * 1024;
+    private Duration ttl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,270 @@
+package com.bookticket.user_service.controller;
+
+import com.bookticket.user_service.dto.UserImportSummary;
+import com.bookticket.user_service.dto.UserPage;
+import com.bookticket.user_service.enums.UserRole;
+import com.bookticket.user_service.service.UserImportService;
+import com.bookticket.user_service.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@Tag(name = "User Administration", description = "Admin-only APIs for bulk user management")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class AdminUserController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+
+    public AdminUserController(UserService userService, UserImportService userImportService, ObjectMapper objectMapper) {
+        this.userService = userService;
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(
+            summary = "List users",
+            description = "Returns one page of users ordered by ID, optionally filtered by role. Pass the returned nextAfterId as afterId "
+                    + "to fetch the following page; it is null on the last page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of users",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = UserPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication token is missing or invalid",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Insufficient privileges",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service unavailable",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "504",
+                    description = "Gateway timeout",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many requests",
+                    content = @Content
+            )
+    })
+    @GetMapping
+    public ResponseEntity<UserPage> listUsers(
+            @Parameter(description = "Return users with an ID greater than this", example = "0")
+            @RequestParam(defaultValue = "0") long afterId,
+            @Parameter(description = "Page size, capped at " + UserService.MAX_PAGE_SIZE, example = "100")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Only return users holding this role", example = "ADMIN")
+            @RequestParam(required = false) UserRole role
+    ) {
+        return ResponseEntity.ok(userService.listUsers(afterId, limit, role));
+    }
+
+    @Operation(
+            summary = "Export all users",
+            description = "Streams every user as NDJSON, one line per user in ID order, straight from a database cursor."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "One user summary per line",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            examples = @ExampleObject(
+                                    value = "{\"id\": \"1\", \"username\": \"john\", \"email\": \"john@example.com\", \"roles\": [\"USER\"]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication token is missing or invalid",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Insufficient privileges",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service unavailable",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "504",
+                    description = "Gateway timeout",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many requests",
+                    content = @Content
+            )
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 16 * 1024);
+        userService.exportUsers(user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        out.flush();
+    }
+
+    @Operation(
+            summary = "Bulk import users",
+            description = "Creates users from a CSV (header: username,email,password,roles; roles separated by '|') "
+                    + "or NDJSON body. Rows are committed in chunks of " + UserImportService.CHUNK_SIZE
+                    + " and one result line per input row is streamed back as each chunk completes, "
+                    + "followed by a summary line.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = {
+                            @Content(
+                                    mediaType = TEXT_CSV_VALUE,
+                                    examples = @ExampleObject(
+                                            value = "username,email,password,roles\njohn,john@example.com,secret123,USER|THEATER_OWNER"
+                                    )
+                            ),
+                            @Content(
+                                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    examples = @ExampleObject(
+                                            value = "{\"username\": \"john\", \"email\": \"john@example.com\", \"password\": \"secret123\", \"roles\": [\"USER\"]}"
+                                    )
+                            )
+                    }
+            )
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Per-row results followed by a summary line",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            examples = @ExampleObject(
+                                    value = "{\"line\": 2, \"status\": \"CREATED\", \"id\": 101}\n"
+                                            + "{\"line\": 3, \"status\": \"FAILED\", \"error\": \"Email already exists\"}\n"
+                                            + "{\"total\": 2, \"created\": 1, \"failed\": 1}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Missing or invalid CSV header",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Authentication token is missing or invalid",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Insufficient privileges",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service unavailable",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "504",
+                    description = "Gateway timeout",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many requests",
+                    content = @Content
+            )
+    })
+    @PostMapping(
+            value = "/import",
+            consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+
+        // The output stream is only opened once the first chunk is done, so a bad CSV header still
+        // reaches GlobalExceptionHandler as a normal 400
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        UserImportSummary summary = userImportService.importUsers(request.getReader(), format, results -> {
+            try {
+                writeLines(response.getOutputStream(), results);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writeLines(response.getOutputStream(), List.of(summary));
+    }
+
+    private void writeLines(OutputStream out, List<?> values) throws IOException {
+        for (Object value : values) {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
@@ -2,9 +2,9 @@ package com.bookticket.user_service.controller;
 
 import com.bookticket.user_service.dto.*;
 import com.bookticket.user_service.service.CustomUserDetails;
-import com.bookticket.user_service.service.UserDetailsServiceImpl;
+import com.bookticket.user_service.service.LoginRateLimiter;
+import com.bookticket.user_service.service.RefreshTokenService;
 import com.bookticket.user_service.service.UserService;
-import com.bookticket.user_service.utils.JwtUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -12,12 +12,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -28,16 +29,16 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthenticationController {
 
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsServiceImpl userDetailsService;
-    private final JwtUtils jwtUtils;
+    private final RefreshTokenService refreshTokenService;
     private final UserService userService;
+    private final LoginRateLimiter loginRateLimiter;
 
-    public AuthenticationController(AuthenticationManager authenticationManager, UserDetailsServiceImpl userDetailsService,
-                                    JwtUtils jwtUtils, UserService userService) {
+    public AuthenticationController(AuthenticationManager authenticationManager, RefreshTokenService refreshTokenService,
+                                    UserService userService, LoginRateLimiter loginRateLimiter) {
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
-        this.jwtUtils = jwtUtils;
+        this.refreshTokenService = refreshTokenService;
         this.userService = userService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @Operation(
@@ -69,7 +70,7 @@ public class AuthenticationController {
             ),
             @ApiResponse(
                     responseCode = "409",
-                    description = "Email already exists",
+                    description = "Username or email already exists",
                     content = @Content
             ),
             @ApiResponse(
@@ -110,12 +111,7 @@ public class AuthenticationController {
     })
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody CreateUserRequest createUserRequest) {
-        UserSummary userSummary = userService.createUser(createUserRequest);
-        final CustomUserDetails userDetails = (CustomUserDetails) userDetailsService.loadUserByUsername(userSummary.email());
-        final String jwt = jwtUtils.generateToken(userDetails);
-        final long expiresIn = jwtUtils.extractExpiration(jwt).getTime();
-
-        return ResponseEntity.ok(new LoginResponse(userSummary, new JwtResponse(jwt, expiresIn)));
+        return ResponseEntity.ok(userService.registerUser(createUserRequest));
     }
 
     @Operation(
@@ -172,7 +168,7 @@ public class AuthenticationController {
             ),
             @ApiResponse(
                     responseCode = "429",
-                    description = "Too many requests",
+                    description = "Too many login attempts from this address or against this account; see Retry-After",
                     content = @Content
             ),
             @ApiResponse(
@@ -182,15 +178,74 @@ public class AuthenticationController {
             )
     })
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.email(), loginRequest.password())
-        );
+    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // Rejects over-limit attempts before the user is loaded or a password is hashed
+        Authentication authentication = loginRateLimiter.attemptLogin(request, loginRequest.email(),
+                () -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(loginRequest.email(), loginRequest.password())
+                ));
 
-        final CustomUserDetails userDetails = (CustomUserDetails) userDetailsService.loadUserByUsername(loginRequest.email());
-        final String jwt = jwtUtils.generateToken(userDetails);
-        final long expiresIn = jwtUtils.extractExpiration(jwt).getTime();
+        // The provider already loaded (and possibly re-hashed) the user; sign from that principal
+        final CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        return ResponseEntity.ok(refreshTokenService.issueTokens(userDetails));
+    }
 
-        return ResponseEntity.ok(new JwtResponse(jwt, expiresIn));
+    @Operation(
+            summary = "Refresh access token",
+            description = "Exchanges a refresh token for a new access token and a new refresh token, without a password check. "
+                    + "Each refresh token can be used once; reusing one revokes every token issued from the same login.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = RefreshTokenRequest.class),
+                            examples = @ExampleObject(
+                                    value = "{\"refreshToken\": \"q3Zl0k9mYf0x2XyV8d1rJbW5tH7uA4sC6eN0pLgK2iM\"}"
+                            )
+                    )
+            )
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Tokens refreshed successfully",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = JwtResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input data",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Refresh token is unknown, expired or already used",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service unavailable",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "504",
+                    description = "Gateway timeout",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many requests",
+                    content = @Content
+            )
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return ResponseEntity.ok(refreshTokenService.refresh(refreshTokenRequest.refreshToken()));
     }
 }
\ No newline at end of file
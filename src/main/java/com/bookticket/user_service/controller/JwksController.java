@@ -0,0 +1,67 @@
+package com.bookticket.user_service.controller;
+
+import com.bookticket.user_service.configuration.JwtConfig;
+import com.bookticket.user_service.configuration.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@Tag(name = "Token Keys", description = "Public keys for verifying access tokens without calling this service")
+public class JwksController {
+    // Keys are published before they sign, so clients may cache for a while
+    private static final CacheControl JWKS_CACHE = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    private final JwtConfig jwtConfig;
+
+    public JwksController(JwtConfig jwtConfig) {
+        this.jwtConfig = jwtConfig;
+    }
+
+    @Operation(
+            summary = "Get token verification keys",
+            description = "Returns the public keys that verify access tokens as a JSON Web Key Set, matched by the token's kid header. "
+                    + "Empty when tokens are signed with the shared HMAC secret (HS256)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "JSON Web Key Set",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            examples = @ExampleObject(
+                                    value = "{\"keys\": [{\"kid\": \"2024-10\", \"use\": \"sig\", \"kty\": \"OKP\", \"alg\": \"EdDSA\", \"crv\": \"Ed25519\", \"x\": \"11qYAYKxCrfVS_7TyWQHOg7hcvPapiMlrwIaaPcHURo\"}]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content
+            )
+    })
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks() {
+        JwtKeyRing keyRing = jwtConfig.getKeyRing();
+        // Spring answers If-None-Match with 304 from the ETag set here
+        return ResponseEntity.ok()
+                .cacheControl(JWKS_CACHE)
+                .eTag(keyRing.jwksEtag())
+                .body(keyRing.jwksJson());
+    }
+}
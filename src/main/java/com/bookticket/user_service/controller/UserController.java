@@ -18,6 +18,8 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/users")
 @Tag(name = "User Management", description = "APIs for managing user accounts")
@@ -120,12 +122,71 @@ public class UserController {
             @Parameter(description = "ID of the user", required = true, example = "123")
             @PathVariable Long userId
     ) {
-        return ResponseEntity.ok(userService.getUserById(userId).getEmail());
+        return ResponseEntity.ok(userService.getEmailById(userId));
+    }
+
+    @Operation(
+            summary = "Get user emails by IDs",
+            description = "Retrieves the email addresses of up to " + UserBatchRequest.MAX_BATCH_SIZE
+                    + " users in one call (public endpoint). Unknown IDs are omitted from the result.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = UserBatchRequest.class),
+                            examples = @ExampleObject(
+                                    value = "{\"userIds\": [123, 456]}"
+                            )
+                    )
+            )
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Map of user ID to email",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            examples = @ExampleObject(
+                                    value = "{\"123\": \"user@example.com\", \"456\": \"other@example.com\"}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty or oversized batch",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service unavailable",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "504",
+                    description = "Gateway timeout",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many requests",
+                    content = @Content
+            )
+    })
+    @PostMapping("/emails")
+    public ResponseEntity<Map<Long, String>> getEmailsByIds(
+            @Valid @RequestBody UserBatchRequest userBatchRequest
+    ) {
+        return ResponseEntity.ok(userService.getEmailsByIds(userBatchRequest.userIds()));
     }
 
     @Operation(
             summary = "Update current user profile",
-            description = "Updates the profile of the currently authenticated user",
+            description = "Updates the profile of the currently authenticated user. Previously issued access and refresh "
+                    + "tokens are revoked; the response carries the new pair",
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
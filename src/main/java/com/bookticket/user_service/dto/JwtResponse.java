@@ -1,14 +1,23 @@
 package com.bookticket.user_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record JwtResponse(
         String token,
         String type,
-        long expiresIn
+        long expiresIn,
+        // Only set by login, register, refresh and profile update
+        String refreshToken,
+        Long refreshExpiresIn
 ) {
     public JwtResponse(String token, long expiresIn) {
-        this(token, "Bearer", expiresIn);
+        this(token, "Bearer", expiresIn, null, null);
+    }
+
+    public JwtResponse withRefreshToken(String refreshToken, long refreshExpiresIn) {
+        return new JwtResponse(token, type, expiresIn, refreshToken, refreshExpiresIn);
     }
 }
@@ -0,0 +1,15 @@
+package com.bookticket.user_service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UserBatchRequest(
+        @NotEmpty(message = "At least one user id is required")
+        @Size(max = UserBatchRequest.MAX_BATCH_SIZE, message = "At most " + UserBatchRequest.MAX_BATCH_SIZE + " user ids per request")
+        List<@NotNull Long> userIds
+) {
+    public static final int MAX_BATCH_SIZE = 500;
+}
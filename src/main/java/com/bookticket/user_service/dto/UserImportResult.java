@@ -0,0 +1,27 @@
+package com.bookticket.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one input line of a bulk import, streamed back as one NDJSON line.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserImportResult(
+        long line,
+        Status status,
+        Long id,
+        String error
+) {
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    public static UserImportResult created(long line, Long id) {
+        return new UserImportResult(line, Status.CREATED, id, null);
+    }
+
+    public static UserImportResult failed(long line, String error) {
+        return new UserImportResult(line, Status.FAILED, null, error);
+    }
+}
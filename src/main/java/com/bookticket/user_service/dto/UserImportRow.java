@@ -0,0 +1,25 @@
+package com.bookticket.user_service.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UserImportRow(
+        @NotBlank(message = "Username is required")
+        @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
+        String username,
+
+        @NotBlank(message = "Email is required")
+        @Email(message = "Email is invalid")
+        @Size(max = 100, message = "Email must be at most 100 characters")
+        String email,
+
+        @NotBlank(message = "Password is required")
+        @Size(min = 6, max = 50, message = "Password must be between 6 and 50 characters")
+        String password,
+
+        // Defaults to USER when empty
+        List<String> roles
+) {}
@@ -0,0 +1,10 @@
+package com.bookticket.user_service.dto;
+
+/**
+ * Trailing NDJSON line of a bulk import response.
+ */
+public record UserImportSummary(
+        long total,
+        long created,
+        long failed
+) {}
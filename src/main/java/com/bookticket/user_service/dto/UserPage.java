@@ -0,0 +1,12 @@
+package com.bookticket.user_service.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of users. {@code nextAfterId} is passed back as {@code afterId}
+ * for the next page and is null on the last page.
+ */
+public record UserPage(
+        List<UserSummary> users,
+        Long nextAfterId
+) {}
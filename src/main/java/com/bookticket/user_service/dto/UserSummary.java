@@ -20,4 +20,13 @@ public record UserSummary(
                 .roles(user.getRoles().stream().map(UserRole::name).toList())
                 .build();
     }
+
+    public static UserSummary fromView(UserSummaryView view) {
+        return UserSummary.builder()
+                .id(view.getId().toString())
+                .username(view.getUsername())
+                .email(view.getEmail())
+                .roles(view.getRoles().stream().map(UserRole::name).toList())
+                .build();
+    }
 }
@@ -0,0 +1,21 @@
+package com.bookticket.user_service.dto;
+
+import com.bookticket.user_service.enums.UserRole;
+
+import java.util.Set;
+
+/**
+ * Closed projection over {@code User} for read paths: selects only these columns,
+ * never the password hash, and returns no managed entity.
+ */
+public interface UserSummaryView {
+    Long getId();
+    String getUsername();
+    String getEmail();
+    int getRoleMask();
+    long getTokenVersion();
+
+    default Set<UserRole> getRoles() {
+        return UserRole.fromMask(getRoleMask());
+    }
+}
@@ -0,0 +1,43 @@
+package com.bookticket.user_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Persisted "tokens below this version are revoked" record, replayed into the in-memory
+ * revocation index on startup and polled by other instances. Kept only until every token
+ * it covers has expired.
+ */
+@Entity
+@Table(
+        name = "token_revocations",
+        indexes = {
+                @Index(name = "idx_token_revocations_created_at", columnList = "created_at"),
+                @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_revocations_seq")
+    @SequenceGenerator(name = "token_revocations_seq", sequenceName = "token_revocations_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "min_version", nullable = false)
+    private long minVersion;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
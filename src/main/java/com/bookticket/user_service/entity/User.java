@@ -9,27 +9,42 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.Check;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDate;
-import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
-@Table(name = "user_details")
+@Table(
+        name = "user_details",
+        uniqueConstraints = {
+                @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+                @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+        },
+        indexes = @Index(name = "idx_user_details_role_mask", columnList = "role_mask, id")
+)
 @EntityListeners(AuditingEntityListener.class)
+@Check(name = "ck_user_details_email_normalized", constraints = "email = lower(trim(email))")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
+    // Named so duplicate-key failures can be told apart (see UniqueViolations)
+    public static final String USERNAME_CONSTRAINT = "uk_user_details_username";
+    public static final String EMAIL_CONSTRAINT = "uk_user_details_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids (rather than IDENTITY) let Hibernate batch inserts; ids are reserved 50 at a time
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_details_seq")
+    @SequenceGenerator(name = "user_details_seq", sequenceName = "user_details_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Username is required")
-    @Column(unique = true,nullable = false)
+    @Column(nullable = false)
     @Size(min=3,max = 50)
     private String username;
     @NotBlank(message = "Password is required")
@@ -38,9 +53,14 @@ public class User {
     @NotBlank(message = "Email is required")
     @Size(min=6,max = 100)
     @Email
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
-    private Set<UserRole> roles = new HashSet<>();
+    // Roles as a bitmask of UserRole.bit(): one int column, read with the row, indexed for role lookups
+    @Column(name = "role_mask", nullable = false, columnDefinition = "integer default 0")
+    private int roleMask;
+    // Bumped whenever previously issued tokens must stop being accepted
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long tokenVersion;
 
     // Auditing Fields
     @CreatedDate
@@ -49,4 +69,23 @@ public class User {
     @LastModifiedDate
     @Column(nullable = false)
     private LocalDate updatedAt;
+
+    /**
+     * The single normalized form emails are stored and looked up in.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public void setEmail(String email) {
+        this.email = normalizeEmail(email);
+    }
+
+    public Set<UserRole> getRoles() {
+        return UserRole.fromMask(roleMask);
+    }
+
+    public void setRoles(Set<UserRole> roles) {
+        this.roleMask = UserRole.toMask(roles);
+    }
 }
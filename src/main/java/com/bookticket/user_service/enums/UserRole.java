@@ -1,7 +1,62 @@
 package com.bookticket.user_service.enums;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 public enum UserRole {
-    USER,
-    ADMIN,
-    THEATER_OWNER
+    // Bits are persisted in user_details.role_mask: add new roles with the next free bit, never renumber
+    USER(1),
+    ADMIN(1 << 1),
+    THEATER_OWNER(1 << 2);
+
+    private static final UserRole[] VALUES = values();
+
+    private final int bit;
+
+    UserRole(int bit) {
+        this.bit = bit;
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    public static int toMask(Collection<UserRole> roles) {
+        int mask = 0;
+        for (UserRole role : roles) {
+            mask |= role.bit;
+        }
+        return mask;
+    }
+
+    public static Set<UserRole> fromMask(int mask) {
+        Set<UserRole> roles = EnumSet.noneOf(UserRole.class);
+        for (UserRole role : VALUES) {
+            if ((mask & role.bit) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * Every mask value that includes {@code role}, so "has role" can be queried as
+     * {@code role_mask in (...)} against a plain index instead of a bitwise scan.
+     */
+    public static List<Integer> masksContaining(UserRole role) {
+        int allBits = 0;
+        for (UserRole value : VALUES) {
+            allBits |= value.bit;
+        }
+        List<Integer> masks = new ArrayList<>();
+        for (int mask = 0; mask <= allBits; mask++) {
+            if ((mask & role.bit) != 0 && (mask & ~allBits) == 0) {
+                masks.add(mask);
+            }
+        }
+        return masks;
+    }
 }
@@ -0,0 +1,7 @@
+package com.bookticket.user_service.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
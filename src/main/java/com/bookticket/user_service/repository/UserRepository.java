@@ -1,13 +1,58 @@
 package com.bookticket.user_service.repository;
 
+import com.bookticket.user_service.dto.UserSummaryView;
 import com.bookticket.user_service.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Emails are stored normalized (User.setEmail), so lookups go through the *NormalizedEmail
+    // methods below: one probe of the unique email index, whatever the caller's casing
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    default Optional<User> findByNormalizedEmail(String email) {
+        return findByEmail(User.normalizeEmail(email));
+    }
+
+    default Optional<UserSummaryView> findSummaryByNormalizedEmail(String email) {
+        return findSummaryByEmail(User.normalizeEmail(email));
+    }
+
+    default boolean existsByNormalizedEmail(String email) {
+        return existsByEmail(User.normalizeEmail(email));
+    }
+
+    // Set-based existence checks for bulk import
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Read-path projections
+    @Query("select u.email from User u where u.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+    Optional<UserSummaryView> findSummaryById(Long id);
+    Optional<UserSummaryView> findSummaryByEmail(String email);
+    List<UserSummaryView> findSummariesByIdIn(Collection<Long> ids);
+
+    // Admin listing: keyset pages on the primary key, and a cursor for full exports
+    List<UserSummaryView> findSummariesByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    // Role filter as role_mask IN (UserRole.masksContaining(role)), served by idx_user_details_role_mask
+    List<UserSummaryView> findSummariesByRoleMaskInAndIdGreaterThanOrderByIdAsc(Collection<Integer> roleMasks, Long afterId, Limit limit);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<UserSummaryView> streamSummariesByOrderByIdAsc();
 }
@@ -0,0 +1,51 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.dto.UserSummary;
+import com.bookticket.user_service.dto.UserSummaryView;
+import com.bookticket.user_service.entity.User;
+import com.bookticket.user_service.enums.UserRole;
+
+/**
+ * Password-free snapshot of a user held by {@link UserCache}.
+ */
+public record CachedUser(
+        Long id,
+        String username,
+        String email,
+        int roleMask,
+        long tokenVersion
+) {
+    public static CachedUser fromUser(User user) {
+        return new CachedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getRoleMask(),
+                user.getTokenVersion()
+        );
+    }
+
+    public static CachedUser fromView(UserSummaryView view) {
+        return new CachedUser(
+                view.getId(),
+                view.getUsername(),
+                view.getEmail(),
+                view.getRoleMask(),
+                view.getTokenVersion()
+        );
+    }
+
+    public UserSummary toSummary() {
+        return UserSummary.builder()
+                .id(id.toString())
+                .username(username)
+                .email(email)
+                .roles(UserRole.fromMask(roleMask).stream().map(UserRole::name).toList())
+                .build();
+    }
+
+    // Rough retained size: record + two strings, used to bound the cache by bytes
+    int estimatedBytes() {
+        return 96 + 2 * (username.length() + email.length());
+    }
+}
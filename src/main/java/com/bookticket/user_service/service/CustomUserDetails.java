@@ -1,6 +1,8 @@
 package com.bookticket.user_service.service;
 
 import com.bookticket.user_service.entity.User;
+import com.bookticket.user_service.enums.UserRole;
+import com.bookticket.user_service.utils.VerifiedToken;
 import lombok.Data;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
@@ -8,23 +10,75 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.stream.IntStream;
 
 @Data
 public class CustomUserDetails implements UserDetails {
+    private static final List<List<GrantedAuthority>> AUTHORITIES_BY_MASK = IntStream
+            .range(0, 1 << UserRole.values().length)
+            .mapToObj(CustomUserDetails::toAuthorities)
+            .toList();
+
     private final Long id;
     private final String username;
     private final String userIdAndName;
     private final String password;
     private final Collection<? extends GrantedAuthority> authorities;
+    private final long tokenVersion;
 
     public CustomUserDetails(User user) {
         this.id = user.getId();
         this.username = user.getEmail(); // Using email as the username for authentication
         this.password = user.getPassword();
         this.userIdAndName = user.getId() + "_" + user.getUsername();
-        this.authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority( role.name()))
+        this.authorities = authoritiesFor(user.getRoleMask());
+        this.tokenVersion = user.getTokenVersion();
+    }
+
+    // Principal for bearer-authenticated requests served from the user cache; no password is held
+    public CustomUserDetails(CachedUser user) {
+        this.id = user.id();
+        this.username = user.email();
+        this.password = null;
+        this.userIdAndName = user.id() + "_" + user.username();
+        this.authorities = authoritiesFor(user.roleMask());
+        this.tokenVersion = user.tokenVersion();
+    }
+
+    // Claims-trusted principal: built from a verified token without touching the database
+    public CustomUserDetails(VerifiedToken token) {
+        this.id = token.userId();
+        this.username = token.email();
+        this.password = null;
+        this.userIdAndName = token.username();
+        this.authorities = token.roles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        this.tokenVersion = token.tokenVersionOrZero();
+    }
+
+    // Principal forwarded by the API gateway in trusted X-User-* headers; no password is held
+    public CustomUserDetails(Long id, String email, String username, Collection<? extends GrantedAuthority> authorities,
+                             long tokenVersion) {
+        this.id = id;
+        this.username = email;
+        this.password = null;
+        this.userIdAndName = id + "_" + username;
+        this.authorities = authorities;
+        this.tokenVersion = tokenVersion;
+    }
+
+    // One shared immutable authority list per role mask, so loading a principal allocates none
+    private static List<GrantedAuthority> authoritiesFor(int roleMask) {
+        return roleMask >= 0 && roleMask < AUTHORITIES_BY_MASK.size()
+                ? AUTHORITIES_BY_MASK.get(roleMask)
+                : toAuthorities(roleMask);
+    }
+
+    private static List<GrantedAuthority> toAuthorities(int roleMask) {
+        return UserRole.fromMask(roleMask).stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.name()))
                 .toList();
     }
 
@@ -0,0 +1,179 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.configuration.LoginRateLimitConfig;
+import com.bookticket.user_service.entity.User;
+import com.bookticket.user_service.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-address and per-account token buckets checked before a login reaches the database or BCrypt.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (GCRA), which is
+ * equivalent to a token bucket but updated with one CAS and no lock. Buckets live in size-bounded
+ * Caffeine caches that expire them after the time they take to refill completely, since a full
+ * bucket behaves exactly like a missing one. Cache sizes, evictions and rejections are published
+ * through Micrometer.
+ */
+@Component
+public class LoginRateLimiter {
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final boolean enabled;
+    private final boolean addressLimitEnabled;
+    private final List<IpAddressMatcher> trustedProxies;
+    private final Limit ipLimit;
+    private final Limit accountLimit;
+
+    public LoginRateLimiter(LoginRateLimitConfig config, MeterRegistry meterRegistry) {
+        this.enabled = config.isEnabled();
+        this.addressLimitEnabled = config.isAddressLimitEnabled();
+        this.trustedProxies = config.getTrustedProxies().stream().map(IpAddressMatcher::new).toList();
+        this.ipLimit = new Limit("ip", config.getIpCapacity(), config.getIpRefill(), config.getMaxEntries(), meterRegistry);
+        this.accountLimit = new Limit("account", config.getAccountCapacity(), config.getAccountRefill(),
+                config.getMaxEntries(), meterRegistry);
+    }
+
+    /**
+     * Runs {@code authenticate} if neither the client address nor the account is over its limit, and
+     * throws {@link TooManyRequestsException} otherwise. The account token is taken before the attempt,
+     * so concurrent guesses cannot all pass the check, and refunded unless the credentials were rejected.
+     */
+    public <T> T attemptLogin(HttpServletRequest request, String email, Supplier<T> authenticate) {
+        if (!enabled) {
+            return authenticate.get();
+        }
+        String account = email == null ? null : User.normalizeEmail(email);
+        acquire(addressLimitEnabled ? clientAddress(request) : null, account, System.nanoTime());
+        T result;
+        try {
+            result = authenticate.get();
+        } catch (BadCredentialsException ex) {
+            // The guess stays charged to the account
+            throw ex;
+        } catch (RuntimeException ex) {
+            // No password was checked, e.g. the hashing pool was saturated
+            refund(account);
+            throw ex;
+        }
+        refund(account);
+        return result;
+    }
+
+    void acquire(String clientAddress, String account, long now) {
+        if (account != null) {
+            accountLimit.acquire(account, now);
+        }
+        if (clientAddress != null) {
+            try {
+                ipLimit.acquire(clientAddress, now);
+            } catch (TooManyRequestsException ex) {
+                refund(account);
+                throw ex;
+            }
+        }
+    }
+
+    void refund(String account) {
+        if (account != null) {
+            accountLimit.refund(account);
+        }
+    }
+
+    /**
+     * The connecting address, or for a trusted proxy the rightmost X-Forwarded-For entry it did not add itself.
+     */
+    String clientAddress(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (forwardedFor == null || !isTrustedProxy(address)) {
+            return address;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            address = hops[i].trim();
+            if (!isTrustedProxy(address)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException ex) {
+                // A malformed forwarded entry is treated as the client
+                return false;
+            }
+        }
+        return false;
+    }
+
+    static final class Limit {
+        private final String name;
+        private final long interval;
+        // How far the arrival time may run ahead of now: the burst capacity in intervals
+        private final long tolerance;
+        private final Cache<String, AtomicLong> buckets;
+        private final Counter rejected;
+
+        Limit(String name, int capacity, Duration refill, long maxEntries, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.interval = Math.max(1, refill.toNanos());
+            this.tolerance = interval * Math.max(1, capacity);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(Math.max(1, maxEntries))
+                    .expireAfterAccess(tolerance, TimeUnit.NANOSECONDS)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, buckets, "login.rate-limit." + name);
+            this.rejected = Counter.builder("auth.login.rate_limited")
+                    .tag("limit", name)
+                    .description("Login attempts rejected by the rate limiter before authentication")
+                    .register(meterRegistry);
+        }
+
+        void acquire(String key, long now) {
+            // A fresh bucket starts full: its arrival time is in the past
+            AtomicLong arrival = buckets.get(key, k -> new AtomicLong(now - tolerance));
+            while (true) {
+                long current = arrival.get();
+                long next = Math.max(current, now) + interval;
+                if (next - now > tolerance) {
+                    rejected.increment();
+                    long retryAfter = TimeUnit.NANOSECONDS.toSeconds(next - now - tolerance) + 1;
+                    throw new TooManyRequestsException("Too many login attempts for this " + name + ", please retry later",
+                            retryAfter);
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        // Gives back one token; a bucket that has since expired is already full
+        void refund(String key) {
+            AtomicLong arrival = buckets.getIfPresent(key);
+            if (arrival != null) {
+                arrival.addAndGet(-interval);
+            }
+        }
+    }
+}
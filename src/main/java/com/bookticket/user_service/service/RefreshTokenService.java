@@ -0,0 +1,114 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.configuration.JwtConfig;
+import com.bookticket.user_service.dto.JwtResponse;
+import com.bookticket.user_service.entity.RefreshToken;
+import com.bookticket.user_service.repository.RefreshTokenRepository;
+import com.bookticket.user_service.utils.JwtUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues short-lived access tokens together with rotating refresh tokens, and trades a refresh token
+ * for a new pair without a password check, keeping session renewal off BCrypt.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtUtils jwtUtils;
+    private final JwtConfig jwtConfig;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserDetailsServiceImpl userDetailsService,
+                               JwtUtils jwtUtils, JwtConfig jwtConfig) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userDetailsService = userDetailsService;
+        this.jwtUtils = jwtUtils;
+        this.jwtConfig = jwtConfig;
+    }
+
+    /**
+     * Access token plus the first refresh token of a new family, for login and registration.
+     */
+    @Transactional
+    public JwtResponse issueTokens(CustomUserDetails userDetails) {
+        return issueTokens(userDetails, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Rotates {@code refreshToken}: marks it used and returns a new access token and refresh token.
+     * Presenting a token that was already used revokes every token in its family.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public JwtResponse refresh(String refreshToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        if (stored.isUsed()) {
+            int revoked = refreshTokenRepository.deleteByFamilyId(stored.getFamilyId());
+            log.warn("Refresh token reuse for user {}, revoked {} tokens in its family", stored.getUserId(), revoked);
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (stored.getExpiresAt().isBefore(Instant.now())) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+        stored.setUsed(true);
+
+        // Throws UsernameNotFoundException (also a 401) if the user has since been deleted
+        CustomUserDetails userDetails = (CustomUserDetails) userDetailsService.loadUserById(stored.getUserId());
+        return issueTokens(userDetails, stored.getFamilyId());
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-prune-interval:PT1H}")
+    @Transactional
+    public void pruneExpired() {
+        int pruned = refreshTokenRepository.deleteExpired(Instant.now());
+        if (pruned > 0) {
+            log.info("Pruned {} expired refresh tokens", pruned);
+        }
+    }
+
+    private JwtResponse issueTokens(CustomUserDetails userDetails, String familyId) {
+        String refreshToken = newToken();
+        // Second precision, matching the access token expiry
+        Instant expiresAt = Instant.ofEpochSecond((System.currentTimeMillis() + jwtConfig.getRefreshExpiration()) / 1000);
+        refreshTokenRepository.save(new RefreshToken(null, userDetails.getId(), hash(refreshToken), familyId, expiresAt, false));
+        return jwtUtils.issueToken(userDetails).withRefreshToken(refreshToken, expiresAt.toEpochMilli());
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Tokens are 256 random bits, so an unsalted fast hash is enough to keep the table useless if leaked
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.bookticket.user_service.service;
+
+/**
+ * Immutable open-addressing map from user id to the lowest token version still accepted, with the
+ * time after which the entry can be dropped. Lookups probe primitive arrays and allocate nothing;
+ * updates build a new index, which is fine because revocations are rare and entries short-lived.
+ * User ids are positive, so 0 marks an empty slot.
+ */
+final class RevocationIndex {
+    static final RevocationIndex EMPTY = new RevocationIndex(0);
+
+    private static final long EMPTY_SLOT = 0L;
+
+    private final long[] userIds;
+    private final long[] minVersions;
+    private final long[] expiresAt;
+    private final int mask;
+    private int size;
+
+    private RevocationIndex(int expectedSize) {
+        // Load factor of at most one half keeps probe chains short
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.userIds = new long[capacity];
+        this.minVersions = new long[capacity];
+        this.expiresAt = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Lowest accepted token version for {@code userId}, or 0 when nothing is revoked.
+     */
+    long minVersion(long userId) {
+        if (size == 0) {
+            return 0L;
+        }
+        for (int slot = slot(userId); ; slot = (slot + 1) & mask) {
+            long key = userIds[slot];
+            if (key == userId) {
+                return minVersions[slot];
+            }
+            if (key == EMPTY_SLOT) {
+                return 0L;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns an index that also holds the entry; versions merge by max and expiries by latest.
+     */
+    RevocationIndex with(long userId, long minVersion, long expiresAtMillis) {
+        RevocationIndex copy = new RevocationIndex(size + 1);
+        copy.copyFrom(this, Long.MIN_VALUE);
+        copy.put(userId, minVersion, expiresAtMillis);
+        return copy;
+    }
+
+    /**
+     * Returns an index without the entries that expired at or before {@code nowMillis}, or this one if none did.
+     */
+    RevocationIndex withoutExpired(long nowMillis) {
+        int live = 0;
+        for (int slot = 0; slot < userIds.length; slot++) {
+            if (userIds[slot] != EMPTY_SLOT && expiresAt[slot] > nowMillis) {
+                live++;
+            }
+        }
+        if (live == size) {
+            return this;
+        }
+        RevocationIndex copy = new RevocationIndex(live);
+        copy.copyFrom(this, nowMillis);
+        return copy;
+    }
+
+    private void copyFrom(RevocationIndex source, long expiredAtOrBefore) {
+        for (int slot = 0; slot < source.userIds.length; slot++) {
+            if (source.userIds[slot] != EMPTY_SLOT && source.expiresAt[slot] > expiredAtOrBefore) {
+                put(source.userIds[slot], source.minVersions[slot], source.expiresAt[slot]);
+            }
+        }
+    }
+
+    private void put(long userId, long minVersion, long expiresAtMillis) {
+        if (userId <= 0) {
+            throw new IllegalArgumentException("User ids must be positive: " + userId);
+        }
+        int slot = slot(userId);
+        while (userIds[slot] != EMPTY_SLOT && userIds[slot] != userId) {
+            slot = (slot + 1) & mask;
+        }
+        if (userIds[slot] == EMPTY_SLOT) {
+            userIds[slot] = userId;
+            minVersions[slot] = minVersion;
+            expiresAt[slot] = expiresAtMillis;
+            size++;
+        } else {
+            minVersions[slot] = Math.max(minVersions[slot], minVersion);
+            expiresAt[slot] = Math.max(expiresAt[slot], expiresAtMillis);
+        }
+    }
+
+    private int slot(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
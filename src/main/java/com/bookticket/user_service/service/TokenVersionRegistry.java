@@ -0,0 +1,119 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.configuration.JwtConfig;
+import com.bookticket.user_service.entity.TokenRevocation;
+import com.bookticket.user_service.repository.TokenRevocationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Minimum accepted token version per user, recorded when a user's tokens are revoked.
+ * Lets claims-trusted authentication reject stale tokens without a database read.
+ * <p>
+ * Revocations are written to token_revocations in the caller's transaction and applied to the
+ * in-memory {@link RevocationIndex} once it commits. The table is replayed on startup and polled
+ * so revocations made on other instances are picked up. An entry is only needed until every token
+ * issued before it has expired, after which it is pruned from memory and the table.
+ */
+@Component
+@Slf4j
+public class TokenVersionRegistry implements SmartInitializingSingleton {
+    // Allowance for clock differences between instances when deciding a revocation has expired
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+    // Re-read rows slightly older than the last poll, since rows can commit after a later-created row
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final JwtConfig jwtConfig;
+
+    private volatile RevocationIndex index = RevocationIndex.EMPTY;
+    private volatile Instant lastPoll = Instant.EPOCH;
+
+    public TokenVersionRegistry(TokenRevocationRepository tokenRevocationRepository, JwtConfig jwtConfig,
+                                MeterRegistry meterRegistry) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.jwtConfig = jwtConfig;
+        Gauge.builder("auth.revocations.active", this, registry -> registry.index.size())
+                .description("Users with revoked tokens that have not yet expired")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Instant now = Instant.now();
+        List<TokenRevocation> revocations = tokenRevocationRepository.findByExpiresAtAfter(now);
+        revocations.forEach(this::apply);
+        lastPoll = now;
+        log.info("Replayed {} token revocations", revocations.size());
+    }
+
+    /**
+     * Rejects every token of {@code userId} with a version below {@code version}.
+     */
+    public void revokeBefore(Long userId, long version) {
+        Instant now = Instant.now();
+        // Tokens issued before now expire by now + jwtExpiration at the latest
+        Instant expiresAt = now.plusMillis(jwtConfig.getJwtExpiration()).plus(CLOCK_SKEW);
+        TokenRevocation revocation = tokenRevocationRepository.save(new TokenRevocation(null, userId, version, now, expiresAt));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Applying before commit would reject the user's current tokens if the update rolls back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(revocation);
+                }
+            });
+        } else {
+            apply(revocation);
+        }
+    }
+
+    /**
+     * Allocation-free check on the authentication hot path.
+     */
+    public boolean isCurrent(long userId, long tokenVersion) {
+        return tokenVersion >= index.minVersion(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-poll-interval:PT5S}")
+    public void pollRevocations() {
+        Instant now = Instant.now();
+        List<TokenRevocation> revocations = tokenRevocationRepository
+                .findByCreatedAtAfterAndExpiresAtAfter(lastPoll.minus(POLL_OVERLAP), now);
+        // Re-applying a known revocation is a no-op, so the overlap is harmless
+        revocations.forEach(this::apply);
+        lastPoll = now;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-prune-interval:PT1M}")
+    public void pruneExpired() {
+        Instant now = Instant.now();
+        synchronized (this) {
+            index = index.withoutExpired(now.toEpochMilli());
+        }
+        int pruned = tokenRevocationRepository.deleteExpired(now);
+        if (pruned > 0) {
+            log.info("Pruned {} expired token revocations", pruned);
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        synchronized (this) {
+            if (index.minVersion(revocation.getUserId()) >= revocation.getMinVersion()) {
+                return;
+            }
+            index = index.with(revocation.getUserId(), revocation.getMinVersion(), revocation.getExpiresAt().toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.entity.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Maps unique-key violations on user_details back to the field that collided, so writes can rely on
+ * the database constraint instead of an exists-query before every insert or update.
+ */
+final class UniqueViolations {
+    private UniqueViolations() {
+    }
+
+    /**
+     * Returns the conflict message for a username or email collision, or null for any other violation.
+     */
+    static String describe(DataIntegrityViolationException ex) {
+        String constraint = constraintName(ex);
+        if (constraint == null) {
+            return null;
+        }
+        // Drivers differ in case and may append index suffixes (H2), so match on the name loosely
+        constraint = constraint.toLowerCase(Locale.ROOT);
+        if (constraint.contains(User.USERNAME_CONSTRAINT)) {
+            return "Username already exists";
+        }
+        if (constraint.contains(User.EMAIL_CONSTRAINT)) {
+            return "Email already exists";
+        }
+        return null;
+    }
+
+    /**
+     * Rethrows a username or email collision as the IllegalStateException the API reports as 409.
+     */
+    static RuntimeException translate(DataIntegrityViolationException ex) {
+        String message = describe(ex);
+        return message == null ? ex : new IllegalStateException(message, ex);
+    }
+
+    private static String constraintName(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+}
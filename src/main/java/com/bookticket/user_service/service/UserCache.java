@@ -0,0 +1,146 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.configuration.UserCacheConfig;
+import com.bookticket.user_service.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded, TTL-based cache of {@link CachedUser} snapshots indexed by id and by lower-cased email.
+ * Hit, miss and eviction counts are published through Micrometer as {@code cache.*} meters.
+ */
+@Component
+public class UserCache {
+    private final boolean enabled;
+    private final Cache<Long, CachedUser> byId;
+    private final Cache<String, CachedUser> byEmail;
+    // Bumped by every eviction; a load that overlaps one does not cache its possibly pre-commit row
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserCache(UserCacheConfig config, MeterRegistry meterRegistry) {
+        this.enabled = config.isEnabled();
+        // Both indexes point at the same snapshots, so each gets half of the byte budget
+        long maxWeight = Math.max(1, config.getMaxBytes() / 2);
+        this.byId = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long id, CachedUser user) -> 16 + user.estimatedBytes())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        this.byEmail = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String email, CachedUser user) -> 2 * email.length() + user.estimatedBytes())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.by-email");
+    }
+
+    public Optional<CachedUser> getById(Long id, Supplier<Optional<CachedUser>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CachedUser cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        return loader.get().map(user -> put(user, loadedAt));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<CachedUser> peekById(Long id) {
+        return enabled ? Optional.ofNullable(byId.getIfPresent(id)) : Optional.empty();
+    }
+
+    public Optional<CachedUser> getByEmail(String email, Supplier<Optional<CachedUser>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CachedUser cached = byEmail.getIfPresent(normalize(email));
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        return loader.get().map(user -> put(user, loadedAt));
+    }
+
+    /**
+     * Read before querying the rows to cache, and pass to {@link #put(CachedUser, long)} afterwards.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public CachedUser put(User user, long loadedAt) {
+        return put(CachedUser.fromUser(user), loadedAt);
+    }
+
+    /**
+     * Caches a row loaded by the caller unless an eviction happened since {@code loadedAt}, the
+     * {@link #generation()} read before the load. The re-check after the put undoes an eviction that
+     * landed between the first check and the put.
+     */
+    public CachedUser put(CachedUser cachedUser, long loadedAt) {
+        if (!enabled || generation.get() != loadedAt) {
+            return cachedUser;
+        }
+        byId.put(cachedUser.id(), cachedUser);
+        byEmail.put(normalize(cachedUser.email()), cachedUser);
+        if (generation.get() != loadedAt) {
+            byId.asMap().remove(cachedUser.id(), cachedUser);
+            byEmail.asMap().remove(normalize(cachedUser.email()), cachedUser);
+        }
+        return cachedUser;
+    }
+
+    /**
+     * Drops the user from both indexes now and again once the surrounding transaction commits.
+     * Each eviction advances the generation, so a load that read the pre-commit row before the commit
+     * does not cache it afterwards; see {@link #put(CachedUser, long)}.
+     */
+    public void invalidate(Long id, String email) {
+        evict(id, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, email);
+                }
+            });
+        }
+    }
+
+    private void evict(Long id, String email) {
+        generation.incrementAndGet();
+        if (id != null) {
+            CachedUser removed = byId.asMap().remove(id);
+            if (removed != null) {
+                byEmail.invalidate(normalize(removed.email()));
+            }
+        }
+        if (email != null) {
+            CachedUser removed = byEmail.asMap().remove(normalize(email));
+            if (removed != null) {
+                byId.invalidate(removed.id());
+            }
+        }
+    }
+
+    private static String normalize(String email) {
+        return User.normalizeEmail(email);
+    }
+}
@@ -1,34 +1,53 @@
 package com.bookticket.user_service.service;
 
 import com.bookticket.user_service.entity.User;
-import com.bookticket.user_service.exception.ResourceNotFoundException;
 import com.bookticket.user_service.repository.UserRepository;
+import com.bookticket.user_service.utils.StageTimers;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final StageTimers stageTimers;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, UserCache userCache, StageTimers stageTimers) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.stageTimers = stageTimers;
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email.toLowerCase())
+        long loadedAt = userCache.generation();
+        User user = stageTimers.record("user.load", () -> userRepository.findByNormalizedEmail(email))
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + email));
+        // Always read the password hash from the database, but warm the cache for the requests that follow
+        userCache.put(user, loadedAt);
         return new CustomUserDetails(user);
     }
 
+    @Override
     @Transactional
-    public UserDetails loadUserById(Long id) {
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        Long id = ((CustomUserDetails) userDetails).getId();
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with id: " + id));
+        user.setPassword(newPassword);
+        return new CustomUserDetails(userRepository.save(user));
+    }
+
+    @Transactional(readOnly = true)
+    public UserDetails loadUserById(Long id) {
+        CachedUser user = stageTimers.record("user.load",
+                        () -> userCache.getById(id, () -> userRepository.findSummaryById(id).map(CachedUser::fromView)))
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with id: " + id));
         return new CustomUserDetails(user);
     }
 }
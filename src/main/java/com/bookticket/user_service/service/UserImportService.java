@@ -0,0 +1,307 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.configuration.BoundedPasswordEncoder;
+import com.bookticket.user_service.dto.UserImportResult;
+import com.bookticket.user_service.dto.UserImportRow;
+import com.bookticket.user_service.dto.UserImportSummary;
+import com.bookticket.user_service.entity.User;
+import com.bookticket.user_service.enums.UserRole;
+import com.bookticket.user_service.exception.BadRequestException;
+import com.bookticket.user_service.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user import. Input is read line by line and processed in chunks: each chunk is validated,
+ * checked against existing users with two {@code IN} queries, hashed in parallel and inserted in
+ * a single JDBC batch. Results are handed to the caller per chunk so they can be streamed back.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+    public static final int CHUNK_SIZE = 500;
+    private static final List<String> CSV_COLUMNS = List.of("username", "email", "password", "roles");
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserImportService(UserRepository userRepository, PasswordEncoder passwordEncoder, Validator validator,
+                             ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Imports every line of {@code reader}, passing each chunk's results (in line order) to {@code sink}.
+     * Each chunk commits on its own, so a failure part way through keeps the chunks already reported.
+     */
+    public UserImportSummary importUsers(BufferedReader reader, Format format,
+                                         Consumer<List<UserImportResult>> sink) throws IOException {
+        Map<String, Integer> columns = format == Format.CSV ? readCsvHeader(reader) : Map.of();
+        long lineNumber = format == Format.CSV ? 1 : 0;
+        long total = 0;
+        long created = 0;
+
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(lineNumber, line, format, columns));
+            if (chunk.size() == CHUNK_SIZE) {
+                List<UserImportResult> results = importChunk(chunk);
+                total += results.size();
+                created += countCreated(results);
+                sink.accept(results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            List<UserImportResult> results = importChunk(chunk);
+            total += results.size();
+            created += countCreated(results);
+            sink.accept(results);
+        }
+        log.info("User import finished: {} rows, {} created", total, created);
+        return new UserImportSummary(total, created, total - created);
+    }
+
+    private List<UserImportResult> importChunk(List<ParsedRow> chunk) {
+        Map<Long, UserImportResult> results = new TreeMap<>();
+        List<PendingUser> pending = new ArrayList<>(chunk.size());
+        Set<String> chunkEmails = new HashSet<>();
+        Set<String> chunkUsernames = new HashSet<>();
+
+        for (ParsedRow parsed : chunk) {
+            if (parsed.error() != null) {
+                results.put(parsed.line(), UserImportResult.failed(parsed.line(), parsed.error()));
+                continue;
+            }
+            String error = validate(parsed.row());
+            Set<UserRole> roles = error == null ? parseRoles(parsed.row().roles()) : null;
+            if (error == null && roles == null) {
+                error = "Unknown role in " + parsed.row().roles();
+            }
+            String email = error == null ? User.normalizeEmail(parsed.row().email()) : null;
+            if (error == null && !chunkEmails.add(email)) {
+                error = "Duplicate email in import";
+            } else if (error == null && !chunkUsernames.add(parsed.row().username())) {
+                error = "Duplicate username in import";
+            }
+            if (error != null) {
+                results.put(parsed.line(), UserImportResult.failed(parsed.line(), error));
+                continue;
+            }
+            pending.add(new PendingUser(parsed.line(), parsed.row(), email, roles));
+        }
+
+        if (!pending.isEmpty()) {
+            Set<String> existingEmails = userRepository.findExistingEmails(chunkEmails);
+            Set<String> existingUsernames = userRepository.findExistingUsernames(chunkUsernames);
+            pending.removeIf(user -> {
+                String error = existingEmails.contains(user.email()) ? "Email already exists"
+                        : existingUsernames.contains(user.row().username()) ? "Username already exists" : null;
+                if (error != null) {
+                    results.put(user.line(), UserImportResult.failed(user.line(), error));
+                }
+                return error != null;
+            });
+        }
+
+        if (!pending.isEmpty()) {
+            insert(pending, results);
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    private void insert(List<PendingUser> pending, Map<Long, UserImportResult> results) {
+        List<String> hashes = encodeAll(pending.stream().map(user -> user.row().password()).toList());
+
+        List<User> users = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            PendingUser pendingUser = pending.get(i);
+            User user = new User();
+            user.setUsername(pendingUser.row().username());
+            user.setEmail(pendingUser.email());
+            user.setPassword(hashes.get(i));
+            user.setRoles(pendingUser.roles());
+            users.add(user);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+            for (int i = 0; i < pending.size(); i++) {
+                results.put(pending.get(i).line(), UserImportResult.created(pending.get(i).line(), users.get(i).getId()));
+            }
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent writer took one of the keys; retry row by row to find which
+            log.warn("Batch insert of {} users failed, retrying individually", users.size());
+            for (int i = 0; i < pending.size(); i++) {
+                long line = pending.get(i).line();
+                User user = users.get(i);
+                user.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> userRepository.save(user));
+                    results.put(line, UserImportResult.created(line, user.getId()));
+                } catch (DataIntegrityViolationException rowEx) {
+                    String error = UniqueViolations.describe(rowEx);
+                    results.put(line, UserImportResult.failed(line, error != null ? error : "Username or email already exists"));
+                }
+            }
+        }
+    }
+
+    private List<String> encodeAll(List<String> rawPasswords) {
+        if (passwordEncoder instanceof BoundedPasswordEncoder boundedPasswordEncoder) {
+            return boundedPasswordEncoder.encodeAll(rawPasswords);
+        }
+        return rawPasswords.stream().map(passwordEncoder::encode).toList();
+    }
+
+    private String validate(UserImportRow row) {
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining("; "));
+    }
+
+    private static Set<UserRole> parseRoles(List<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return EnumSet.of(UserRole.USER);
+        }
+        Set<UserRole> parsed = EnumSet.noneOf(UserRole.class);
+        for (String role : roles) {
+            try {
+                parsed.add(UserRole.valueOf(role.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+        return parsed;
+    }
+
+    private static long countCreated(List<UserImportResult> results) {
+        return results.stream().filter(result -> result.status() == UserImportResult.Status.CREATED).count();
+    }
+
+    private ParsedRow parse(long lineNumber, String line, Format format, Map<String, Integer> columns) {
+        if (format == Format.NDJSON) {
+            try {
+                return new ParsedRow(lineNumber, objectMapper.readValue(line, UserImportRow.class), null);
+            } catch (JsonProcessingException ex) {
+                return new ParsedRow(lineNumber, null, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+        List<String> fields = splitCsvLine(line);
+        if (fields == null) {
+            return new ParsedRow(lineNumber, null, "Malformed CSV: unterminated quote");
+        }
+        String roles = field(fields, columns, "roles");
+        UserImportRow row = new UserImportRow(
+                field(fields, columns, "username"),
+                field(fields, columns, "email"),
+                field(fields, columns, "password"),
+                roles == null || roles.isBlank() ? List.of() : Arrays.asList(roles.split("\\|")));
+        return new ParsedRow(lineNumber, row, null);
+    }
+
+    private static Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        List<String> names = header == null ? null : splitCsvLine(header);
+        if (names == null) {
+            throw new BadRequestException("CSV import requires a header line: " + String.join(",", CSV_COLUMNS));
+        }
+        Map<String, Integer> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        if (!columns.keySet().containsAll(CSV_COLUMNS.subList(0, 3))) {
+            throw new BadRequestException("CSV header must contain username, email and password columns");
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    /**
+     * Splits one RFC 4180 style line; quoted fields may contain commas and doubled quotes
+     * but not line breaks. Returns null for an unterminated quote.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ParsedRow(long line, UserImportRow row, String error) {}
+
+    private record PendingUser(long line, UserImportRow row, String email, Set<UserRole> roles) {}
+}
@@ -5,94 +5,199 @@ import com.bookticket.user_service.entity.User;
 import com.bookticket.user_service.enums.UserRole;
 import com.bookticket.user_service.exception.ResourceNotFoundException;
 import com.bookticket.user_service.repository.UserRepository;
-import com.bookticket.user_service.utils.JwtUtils;
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class UserService {
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtUtils jwtUtils;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final UserCache userCache;
+    private final RefreshTokenService refreshTokenService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtils jwtUtils) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       TokenVersionRegistry tokenVersionRegistry, UserCache userCache,
+                       RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.jwtUtils = jwtUtils;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.userCache = userCache;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Transactional
     public UserSummary createUser(CreateUserRequest createUserRequest) {
-        String lowerCaseEmail = createUserRequest.email().toLowerCase();
-        if (userRepository.existsByUsername(createUserRequest.username())) {
-            throw new IllegalStateException("Username already exists");
-        }
-        if (userRepository.existsByEmail(lowerCaseEmail)) {
-            throw new IllegalStateException("Email already exists");
-        }
+        return UserSummary.fromUser(saveNewUser(createUserRequest));
+    }
+
+    /**
+     * Creates the user and signs a token from the saved entity, without reloading it.
+     */
+    @Transactional
+    public LoginResponse registerUser(CreateUserRequest createUserRequest) {
+        User savedUser = saveNewUser(createUserRequest);
+        JwtResponse jwtResponse = refreshTokenService.issueTokens(new CustomUserDetails(savedUser));
+        return new LoginResponse(UserSummary.fromUser(savedUser), jwtResponse);
+    }
 
+    private User saveNewUser(CreateUserRequest createUserRequest) {
+        String normalizedEmail = User.normalizeEmail(createUserRequest.email());
         User user = new User();
         user.setUsername(createUserRequest.username());
-        user.setEmail(lowerCaseEmail);
+        user.setEmail(normalizedEmail);
         user.setPassword(passwordEncoder.encode(createUserRequest.password()));
-        user.setRoles(Set.of(UserRole.USER, UserRole.ADMIN));// Temp Changes
-        User savedUser = userRepository.save(user);
+        user.setRoles(Set.of(UserRole.USER));
+        // Uniqueness is enforced by the username/email constraints: one INSERT, no exists-queries to race
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw UniqueViolations.translate(ex);
+        }
+        userCache.invalidate(savedUser.getId(), normalizedEmail);
         log.info("User created Successfully: {}", user.getUsername());
-        return UserSummary.fromUser(savedUser);
+        return savedUser;
     }
 
+    @Transactional(readOnly = true)
     public UserSummary getUserByEmail(String email){
         log.info("Getting user by Email: {}", email);
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
-        return UserSummary.fromUser(user);
+        return userCache.getByEmail(email, () -> userRepository.findSummaryByNormalizedEmail(email).map(CachedUser::fromView))
+                .map(CachedUser::toSummary)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
     }
 
+    @Transactional(readOnly = true)
     public User getUserById(Long userId) {
         return userRepository.findById(userId).orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
     }
 
-    @Transactional
-    public JwtResponse updateUserByEmail(String email, UpdateUserRequest updateUserRequest) {
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException("User ", "email", email));
+    @Transactional(readOnly = true)
+    public String getEmailById(Long userId) {
+        if (!userCache.isEnabled()) {
+            return userRepository.findEmailById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        }
+        return userCache.getById(userId, () -> userRepository.findSummaryById(userId).map(CachedUser::fromView))
+                .map(CachedUser::email)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+    }
 
-        if (updateUserRequest.username() != null && !user.getUsername().equals(updateUserRequest.username())) {
-            if (userRepository.existsByUsername(updateUserRequest.username())) {
-                throw new IllegalStateException("Username already exists");
+    /**
+     * Resolves emails for a batch of user ids with at most one {@code IN} query for the ids
+     * not already cached. Unknown ids are left out of the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, String> getEmailsByIds(Collection<Long> userIds) {
+        Map<Long, String> emails = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            userCache.peekById(userId).ifPresentOrElse(
+                    user -> emails.put(userId, user.email()),
+                    () -> missing.add(userId));
+        }
+        if (!missing.isEmpty()) {
+            long loadedAt = userCache.generation();
+            for (UserSummaryView user : userRepository.findSummariesByIdIn(missing)) {
+                emails.put(user.getId(), userCache.put(CachedUser.fromView(user), loadedAt).email());
             }
-            user.setUsername(updateUserRequest.username());
         }
+        return emails;
+    }
+
+    /**
+     * Keyset page of users ordered by id, optionally only those holding {@code role}.
+     * Each page is one index range scan regardless of depth.
+     */
+    @Transactional(readOnly = true)
+    public UserPage listUsers(long afterId, int limit, UserRole role) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<UserSummaryView> page = role == null
+                ? userRepository.findSummariesByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize))
+                : userRepository.findSummariesByRoleMaskInAndIdGreaterThanOrderByIdAsc(
+                        UserRole.masksContaining(role), afterId, Limit.of(pageSize));
+        List<UserSummary> users = page.stream()
+                .map(UserSummary::fromView)
+                .toList();
+        Long nextAfterId = users.size() < pageSize ? null : Long.valueOf(users.get(users.size() - 1).id());
+        return new UserPage(users, nextAfterId);
+    }
 
-        if (updateUserRequest.email() != null && !user.getEmail().equals(updateUserRequest.email())) {
-            String lowerCaseEmail = updateUserRequest.email().toLowerCase();
-            if (userRepository.existsByEmail(lowerCaseEmail)) {
-                throw new IllegalStateException("Email already exists");
+    /**
+     * Streams every user to {@code sink} from a server-side cursor. Rows are projections, not managed
+     * entities, so nothing accumulates in the persistence context; the transaction stays open until the
+     * last row has been handed over.
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(Consumer<UserSummary> sink) {
+        long exported = 0;
+        try (Stream<UserSummaryView> users = userRepository.streamSummariesByOrderByIdAsc()) {
+            for (UserSummaryView user : (Iterable<UserSummaryView>) users::iterator) {
+                sink.accept(UserSummary.fromView(user));
+                exported++;
             }
-            user.setEmail(lowerCaseEmail);
+        }
+        log.info("Exported {} users", exported);
+        return exported;
+    }
+
+    @Transactional
+    public JwtResponse updateUserByEmail(String email, UpdateUserRequest updateUserRequest) {
+        User user = userRepository.findByNormalizedEmail(email).orElseThrow(() -> new ResourceNotFoundException("User ", "email", email));
+        userCache.invalidate(user.getId(), user.getEmail());
+
+        if (updateUserRequest.username() != null) {
+            user.setUsername(updateUserRequest.username());
+        }
+        if (updateUserRequest.email() != null) {
+            user.setEmail(updateUserRequest.email());
         }
 
         // TODO - Add password update
 
-        User savedUser = userRepository.save(user);
+        // Tokens issued before this update carry stale claims; only the pair returned below stays valid
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw UniqueViolations.translate(ex);
+        }
+        tokenVersionRegistry.revokeBefore(savedUser.getId(), savedUser.getTokenVersion());
+        // Refresh tokens would otherwise keep minting access tokens for the revoked sessions
+        refreshTokenService.revokeAll(savedUser.getId());
         log.info("User updated Successfully: {}", savedUser.getUsername());
 
-        final CustomUserDetails userDetails = new CustomUserDetails(savedUser);
-        final String jwt = jwtUtils.generateToken(userDetails);
-        final long expiresIn = jwtUtils.extractExpiration(jwt).getTime();
-
-        return new JwtResponse(jwt, expiresIn);
+        return refreshTokenService.issueTokens(new CustomUserDetails(savedUser));
     }
 
     @Transactional
     @PreAuthorize("hasRole('ADMIN') or #email == authentication.principal.username")
     public void deleteUserByEmail(String email) {
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+        User user = userRepository.findByNormalizedEmail(email).orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
         userRepository.delete(user);
+        refreshTokenService.revokeAll(user.getId());
+        userCache.invalidate(user.getId(), user.getEmail());
+        tokenVersionRegistry.revokeBefore(user.getId(), user.getTokenVersion() + 1);
         log.info("User deleted Successfully: {}", email);
     }
 }
@@ -1,17 +1,21 @@
 package com.bookticket.user_service.utils;
 
 import com.bookticket.user_service.configuration.JwtConfig;
+import com.bookticket.user_service.configuration.JwtKeyRing;
+import com.bookticket.user_service.dto.JwtResponse;
 import com.bookticket.user_service.service.CustomUserDetails;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.GrantedAuthority;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import java.security.Key;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -20,9 +24,23 @@ import java.util.function.Function;
 @Component
 public class JwtUtils {
     private final JwtConfig jwtConfig;
+    private final StageTimers stageTimers;
+    // JwtParser is immutable and thread-safe; rebuilt only when the signing key changes
+    private volatile ParserHolder parserHolder;
 
-    public JwtUtils(JwtConfig jwtConfig) {
+    public JwtUtils(JwtConfig jwtConfig, StageTimers stageTimers) {
         this.jwtConfig = jwtConfig;
+        this.stageTimers = stageTimers;
+        // Builds the key ring now so missing or invalid signing keys fail startup rather than the first login
+        jwtConfig.getKeyRing();
+    }
+
+    /**
+     * Parses the token and verifies its signature and expiry in one pass.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is invalid.
+     */
+    public VerifiedToken verify(String token) {
+        return VerifiedToken.fromClaims(token, extractAllClaims(token));
     }
 
     public String extractSubject(String token) {
@@ -39,36 +57,107 @@ public class JwtUtils {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(jwtConfig.getJwtSecret())
-                .build()
+        return parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    private JwtParser parser() {
+        SecretKey key = jwtConfig.hasJwtSecret() ? jwtConfig.getJwtSecret() : null;
+        JwtKeyRing keyRing = jwtConfig.getKeyRing();
+        ParserHolder holder = parserHolder;
+        if (holder == null || holder.key() != key || holder.keyRing() != keyRing) {
+            JwtParser parser = keyRing.isAsymmetric()
+                    ? Jwts.parser().keyLocator(new KeyIdLocator(key, keyRing)).build()
+                    : Jwts.parser().verifyWith(key).build();
+            holder = new ParserHolder(key, keyRing, parser);
+            parserHolder = holder;
+        }
+        return holder.parser();
+    }
+
     private Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
 
     public String generateToken(CustomUserDetails userDetails) {
+        return issueToken(userDetails).token();
+    }
+
+    /**
+     * Signs a token for the user and returns it with its expiry, so callers never need to parse
+     * the token they just created.
+     */
+    public JwtResponse issueToken(CustomUserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", userDetails.getAuthorities());
         claims.put("username", userDetails.getUserIdAndName());
-        return createToken(claims, userDetails.getId().toString());
+        claims.put("email", userDetails.getUsername());
+        claims.put("ver", userDetails.getTokenVersion());
+
+        long now = System.currentTimeMillis();
+        // JWT dates have second precision; report the expiry exactly as it is encoded in the token
+        Date expiration = new Date((now + jwtConfig.getJwtExpiration()) / 1000 * 1000);
+        String token = stageTimers.record("jwt.sign",
+                () -> createToken(claims, userDetails.getId().toString(), new Date(now), expiration));
+        return new JwtResponse(token, expiration.getTime());
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+    private String createToken(Map<String, Object> claims, String subject, Date issuedAt, Date expiration) {
+        JwtBuilder builder = Jwts.builder()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtConfig.getJwtExpiration()))
-                .signWith(jwtConfig.getJwtSecret())
-                .compact();
+                .issuedAt(issuedAt)
+                .expiration(expiration);
+        JwtKeyRing keyRing = jwtConfig.getKeyRing();
+        if (keyRing.isAsymmetric()) {
+            return builder.header().keyId(keyRing.activeKeyId()).and()
+                    .signWith(keyRing.signingKey(), keyRing.signatureAlgorithm())
+                    .compact();
+        }
+        return builder.signWith(jwtConfig.getJwtSecret()).compact();
     }
 
     public Boolean validateToken(String token, CustomUserDetails userDetails) {
-        final String subject = extractSubject(token);
-        return (subject.equals(userDetails.getId().toString()) && !isTokenExpired(token));
+        return validateToken(verify(token), userDetails);
+    }
+
+    public Boolean validateToken(VerifiedToken token, CustomUserDetails userDetails) {
+        return (token.subject().equals(userDetails.getId().toString())
+                && token.tokenVersionOrZero() >= userDetails.getTokenVersion()
+                && !token.isExpired());
+    }
+
+    private record ParserHolder(SecretKey key, JwtKeyRing keyRing, JwtParser parser) {
+    }
+
+    /**
+     * Picks the verification key from the token's {@code kid}. Tokens without one were signed with the
+     * HMAC secret before switching to asymmetric keys and verify with it for as long as it is configured.
+     */
+    private static final class KeyIdLocator extends LocatorAdapter<Key> {
+        private final SecretKey legacyKey;
+        private final JwtKeyRing keyRing;
+
+        private KeyIdLocator(SecretKey legacyKey, JwtKeyRing keyRing) {
+            this.legacyKey = legacyKey;
+            this.keyRing = keyRing;
+        }
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String keyId = header.getKeyId();
+            if (keyId == null) {
+                if (legacyKey == null) {
+                    throw new UnsupportedJwtException("Token has no key id");
+                }
+                return legacyKey;
+            }
+            PublicKey key = keyRing.verificationKey(keyId);
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key id: " + keyId);
+            }
+            return key;
+        }
     }
 }
@@ -0,0 +1,140 @@
+package com.bookticket.user_service.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Percentile-histogram timers for the stages inside an authenticated request
+ * ({@code auth.stage}, tagged by stage, endpoint and outcome).
+ */
+@Component
+public class StageTimers {
+    public static final String METRIC = "auth.stage";
+    public static final String NO_ENDPOINT = "none";
+    public static final String UNMAPPED_ENDPOINT = "unmapped";
+
+    private static final String ENDPOINT_ATTRIBUTE = StageTimers.class.getName() + ".endpoint";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    // Controller patterns, most specific first; resolved on first use since MVC starts after security
+    private volatile List<PathPattern> patterns;
+
+    public StageTimers(MeterRegistry meterRegistry) {
+        this(meterRegistry, null);
+    }
+
+    @Autowired
+    public StageTimers(MeterRegistry meterRegistry,
+                       @Qualifier("requestMappingHandlerMapping") ObjectProvider<RequestMappingHandlerMapping> handlerMapping) {
+        this.meterRegistry = meterRegistry;
+        this.handlerMapping = handlerMapping;
+    }
+
+    public <T> T record(String stage, Supplier<T> work) {
+        return record(stage, currentEndpoint(), work);
+    }
+
+    /**
+     * Use this overload when the work runs off the request thread; capture the endpoint with
+     * {@link #currentEndpoint()} before handing the work over.
+     */
+    public <T> T record(String stage, String endpoint, Supplier<T> work) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = work.get();
+            outcome = "success";
+            return result;
+        } finally {
+            timer(stage, endpoint, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Low-cardinality name of the endpoint being served on this thread: the matched handler pattern.
+     * Filters run before MVC resolves it, so the path is matched against the controller patterns here;
+     * paths no controller serves all share {@value #UNMAPPED_ENDPOINT}, keeping the tag bounded.
+     */
+    public String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return NO_ENDPOINT;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        Object resolved = request.getAttribute(ENDPOINT_ATTRIBUTE);
+        if (resolved != null) {
+            return resolved.toString();
+        }
+        String endpoint = matchPattern(request.getRequestURI().substring(request.getContextPath().length()));
+        request.setAttribute(ENDPOINT_ATTRIBUTE, endpoint);
+        return endpoint;
+    }
+
+    private String matchPattern(String path) {
+        List<PathPattern> known = patterns();
+        if (known.isEmpty()) {
+            return UNMAPPED_ENDPOINT;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern candidate : known) {
+            if (candidate.matches(container)) {
+                return candidate.getPatternString();
+            }
+        }
+        return UNMAPPED_ENDPOINT;
+    }
+
+    private List<PathPattern> patterns() {
+        List<PathPattern> known = patterns;
+        if (known != null) {
+            return known;
+        }
+        RequestMappingHandlerMapping mapping = handlerMapping == null ? null : handlerMapping.getIfAvailable();
+        if (mapping == null) {
+            return List.of();
+        }
+        known = mapping.getHandlerMethods().keySet().stream()
+                .flatMap(info -> info.getPatternValues().stream())
+                .distinct()
+                .map(PathPatternParser.defaultInstance::parse)
+                .sorted(PathPattern.SPECIFICITY_COMPARATOR)
+                .toList();
+        patterns = known;
+        return known;
+    }
+
+    private Timer timer(String stage, String endpoint, String outcome) {
+        return timers.computeIfAbsent(stage + '|' + endpoint + '|' + outcome, key -> Timer.builder(METRIC)
+                .description("Time spent in one stage of request authentication or user loading")
+                .tag("stage", stage)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,74 @@
+package com.bookticket.user_service.utils;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A JWT whose signature has been checked once. Holds the claims the filter and
+ * controllers need, so the token does not have to be parsed again later in the request.
+ */
+public record VerifiedToken(
+        String token,
+        String subject,
+        Date expiration,
+        List<String> roles,
+        String username,
+        String email,
+        Long tokenVersion
+) {
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    static VerifiedToken fromClaims(String token, Claims claims) {
+        return new VerifiedToken(
+                token,
+                claims.getSubject(),
+                claims.getExpiration(),
+                extractRoles(claims.get("roles")),
+                claims.get("username", String.class),
+                claims.get("email", String.class),
+                claims.get("ver") instanceof Number version ? version.longValue() : null
+        );
+    }
+
+    public long userId() {
+        return Long.parseLong(subject);
+    }
+
+    // Tokens issued before the version claim existed count as version 0
+    public long tokenVersionOrZero() {
+        return tokenVersion == null ? 0L : tokenVersion;
+    }
+
+    // Tokens issued before the email claim existed cannot be turned into a principal on their own
+    public boolean hasPrincipalClaims() {
+        return email != null && username != null;
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    // Roles are written from GrantedAuthority objects, so they come back as {"authority": "..."} maps
+    private static List<String> extractRoles(Object rolesClaim) {
+        if (!(rolesClaim instanceof Collection<?> rawRoles)) {
+            return List.of();
+        }
+        List<String> roles = new ArrayList<>(rawRoles.size());
+        for (Object role : rawRoles) {
+            if (role instanceof Map<?, ?> authority) {
+                Object value = authority.get("authority");
+                if (value != null) {
+                    roles.add(value.toString());
+                }
+            } else if (role != null) {
+                roles.add(role.toString());
+            }
+        }
+        return List.copyOf(roles);
+    }
+}
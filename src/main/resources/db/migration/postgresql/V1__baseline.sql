@@ -0,0 +1,12 @@
+-- Schema as previously created by Hibernate. Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate), so this only runs on an empty database.
+create table if not exists user_details (
+    id            bigint generated by default as identity primary key,
+    username      varchar(50)  not null unique,
+    password      varchar(255),
+    email         varchar(100) not null unique,
+    roles         smallint[],
+    token_version bigint default 0 not null,
+    created_at    date         not null,
+    updated_at    date         not null
+);
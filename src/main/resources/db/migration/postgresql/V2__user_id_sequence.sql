@@ -0,0 +1,7 @@
+-- Baselined databases may predate the token_version column
+alter table user_details add column if not exists token_version bigint default 0 not null;
+
+-- Pooled id allocation for JDBC insert batching (User.id, allocationSize = 50).
+-- Hibernate's pooled optimizer hands out (value - 49 .. value), so start 50 past the current maximum.
+create sequence if not exists user_details_seq increment by 50;
+select setval('user_details_seq', (select coalesce(max(id), 0) + 50 from user_details), false);
@@ -0,0 +1,11 @@
+-- Moves User.roles from the smallint[] of enum ordinals Hibernate created to the role_mask bitmask.
+-- UserRole bits are 1 << ordinal for every role that existed in the array form.
+alter table user_details add column if not exists role_mask integer default 0 not null;
+
+update user_details
+set role_mask = coalesce((select bit_or(1 << r) from unnest(roles) r), 0)
+where roles is not null;
+
+alter table user_details drop column if exists roles;
+
+create index if not exists idx_user_details_role_mask on user_details (role_mask, id);
@@ -0,0 +1,7 @@
+-- Emails are stored trimmed and lower-cased (User.normalizeEmail) so every lookup is one probe of the
+-- existing unique index on email. Rows that only differ by case collide here and must be merged by hand
+-- before this migration can run; the unique violation names the offending address.
+update user_details set email = lower(trim(email)) where email <> lower(trim(email));
+
+alter table user_details
+    add constraint ck_user_details_email_normalized check (email = lower(trim(email)));
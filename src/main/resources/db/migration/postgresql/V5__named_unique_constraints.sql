@@ -0,0 +1,20 @@
+-- Give the username/email unique constraints stable names (User.USERNAME_CONSTRAINT / EMAIL_CONSTRAINT).
+-- Writes rely on them instead of exists-queries and tell the two apart by name; the names Hibernate or
+-- V1 generated differ between databases, so look them up.
+do $$
+declare
+    c record;
+begin
+    for c in
+        select con.conname, att.attname
+        from pg_constraint con
+        join pg_attribute att on att.attrelid = con.conrelid and att.attnum = con.conkey[1]
+        where con.conrelid = 'user_details'::regclass
+          and con.contype = 'u'
+          and array_length(con.conkey, 1) = 1
+          and att.attname in ('username', 'email')
+          and con.conname <> 'uk_user_details_' || att.attname
+    loop
+        execute format('alter table user_details rename constraint %I to %I', c.conname, 'uk_user_details_' || c.attname);
+    end loop;
+end $$;
@@ -0,0 +1,16 @@
+-- Rotating refresh tokens (RefreshToken entity); only the SHA-256 of each token is stored
+create sequence if not exists refresh_tokens_seq increment by 50;
+
+create table if not exists refresh_tokens (
+    id         bigint primary key,
+    user_id    bigint       not null references user_details (id) on delete cascade,
+    token_hash varchar(64)  not null,
+    family_id  varchar(36)  not null,
+    expires_at timestamp(6) with time zone not null,
+    used       boolean      not null,
+    constraint uk_refresh_tokens_token_hash unique (token_hash)
+);
+
+create index if not exists idx_refresh_tokens_user_id on refresh_tokens (user_id);
+create index if not exists idx_refresh_tokens_family_id on refresh_tokens (family_id);
+create index if not exists idx_refresh_tokens_expires_at on refresh_tokens (expires_at);
@@ -0,0 +1,13 @@
+-- Per-user token revocations (TokenRevocation entity), replayed into memory on startup
+create sequence if not exists token_revocations_seq increment by 50;
+
+create table if not exists token_revocations (
+    id          bigint primary key,
+    user_id     bigint not null,
+    min_version bigint not null,
+    created_at  timestamp(6) with time zone not null,
+    expires_at  timestamp(6) with time zone not null
+);
+
+create index if not exists idx_token_revocations_created_at on token_revocations (created_at);
+create index if not exists idx_token_revocations_expires_at on token_revocations (expires_at);
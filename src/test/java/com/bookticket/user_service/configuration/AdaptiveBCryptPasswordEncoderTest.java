@@ -0,0 +1,36 @@
+package com.bookticket.user_service.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    void onlyCheaperHashesAreRehashed() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(11);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(10).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(11).encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(13).encode("secret"))).isFalse();
+    }
+
+    @Test
+    void strengthNeverGoesBelowTheFloor() {
+        PasswordHashingConfig calibrated = new PasswordHashingConfig();
+        calibrated.setMinStrength(4);
+        calibrated.setMaxStrength(AdaptiveBCryptPasswordEncoder.MIN_STRENGTH);
+        // Every candidate misses this target, so calibration falls back to its lower bound
+        calibrated.setTargetLatency(Duration.ofNanos(1));
+        assertThat(AdaptiveBCryptPasswordEncoder.calibrated(calibrated).getStrength())
+                .isEqualTo(AdaptiveBCryptPasswordEncoder.MIN_STRENGTH);
+
+        PasswordHashingConfig configured = new PasswordHashingConfig();
+        configured.setStrength(6);
+        assertThat(AdaptiveBCryptPasswordEncoder.calibrated(configured).getStrength())
+                .isEqualTo(AdaptiveBCryptPasswordEncoder.MIN_STRENGTH);
+    }
+}
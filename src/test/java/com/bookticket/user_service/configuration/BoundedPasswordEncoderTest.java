@@ -0,0 +1,93 @@
+package com.bookticket.user_service.configuration;
+
+import com.bookticket.user_service.exception.TooManyRequestsException;
+import com.bookticket.user_service.utils.StageTimers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+            new BlockingEncoder(), config(), meterRegistry,
+            new StageTimers(new SimpleMeterRegistry()), runnable -> runnable);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.destroy();
+    }
+
+    @Test
+    void bulkEncodingRunsOnTheCallerWhenThePoolIsSaturated() throws Exception {
+        // One login holds the only worker and another fills the queue
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("block"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+        waitUntilQueueIsFull();
+
+        assertThat(encoder.encodeAll(List.of("a", "b", "c"))).containsExactly("{hash}a", "{hash}b", "{hash}c");
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("{hash}block");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("{hash}queued");
+    }
+
+    @Test
+    void interactiveEncodingStillFailsFast() throws Exception {
+        CompletableFuture.supplyAsync(() -> encoder.encode("block"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+        waitUntilQueueIsFull();
+
+        assertThatThrownBy(() -> encoder.encode("rejected")).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    private void waitUntilQueueIsFull() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").gauge().value() < 1) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("hashing queue never filled up");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static PasswordHashingConfig config() {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setPoolSize(1);
+        config.setQueueCapacity(1);
+        return config;
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if ("block".contentEquals(rawPassword)) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "{hash}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.bookticket.user_service.configuration;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DropAwareAsyncAppenderTest {
+
+    @Test
+    void slowSinkDoesNotDelayLogging() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger delivered = new AtomicInteger();
+        LoggerContext context = newContext();
+        // Stands in for a synchronous remote sink whose every append waits on the network
+        AppenderBase<ILoggingEvent> slowSink = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.incrementAndGet();
+            }
+        };
+        slowSink.setContext(context);
+        slowSink.start();
+
+        DropAwareAsyncAppender appender = new DropAwareAsyncAppender();
+        appender.setContext(context);
+        appender.setName("slow-sink-test");
+        appender.setQueueSize(8);
+        appender.setBatchSize(1);
+        appender.setDropPolicy(DropAwareAsyncAppender.DropPolicy.BLOCK);
+        appender.setMaxBlockMillis(1);
+        appender.addAppender(slowSink);
+        appender.start();
+        Logger logger = context.getLogger("slow-sink-test");
+        logger.addAppender(appender);
+
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                logger.info("event {}", i);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Appending straight to the sink would have taken 100 x 5 seconds
+            assertThat(elapsedMillis).isLessThan(1000);
+            DropAwareAsyncAppender.Stats stats = DropAwareAsyncAppender.stats().get("slow-sink-test");
+            assertThat(stats.delayed()).isGreaterThanOrEqualTo(100 - 8 - 1);
+            assertThat(stats.dropped()).isGreaterThanOrEqualTo(100 - 8 - 1);
+
+            release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (stats.queueDepth() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(delivered.get()).isPositive();
+        } finally {
+            release.countDown();
+            appender.stop();
+            context.stop();
+        }
+    }
+
+    @Test
+    void fullQueueDropsAndCountsInsteadOfBlocking() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        LoggerContext context = newContext();
+        AppenderBase<ILoggingEvent> stuckSink = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        stuckSink.setContext(context);
+        stuckSink.start();
+
+        DropAwareAsyncAppender appender = new DropAwareAsyncAppender();
+        appender.setContext(context);
+        appender.setName("drop-test");
+        appender.setQueueSize(8);
+        appender.setBatchSize(1);
+        appender.setDropPolicy(DropAwareAsyncAppender.DropPolicy.DROP_NEWEST);
+        appender.addAppender(stuckSink);
+        appender.start();
+        Logger logger = context.getLogger("drop-test");
+        logger.addAppender(appender);
+
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                logger.info("event {}", i);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            DropAwareAsyncAppender.Stats stats = DropAwareAsyncAppender.stats().get("drop-test");
+            assertThat(elapsedMillis).isLessThan(1000);
+            // At most the queue plus the batch held by the stuck worker can be retained
+            assertThat(stats.dropped()).isGreaterThanOrEqualTo(100 - 8 - 1);
+        } finally {
+            release.countDown();
+            appender.stop();
+            context.stop();
+        }
+    }
+
+    // Standalone contexts only get an MDC adapter when SLF4J initializes them; events need one to copy the MDC
+    private static LoggerContext newContext() {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        return context;
+    }
+}
@@ -0,0 +1,153 @@
+package com.bookticket.user_service.configuration;
+
+import com.bookticket.user_service.service.CustomUserDetails;
+import com.bookticket.user_service.service.TokenVersionRegistry;
+import com.bookticket.user_service.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GatewayHeaderAuthFilterTest {
+    private static final byte[] SECRET = "gateway-shared-secret-for-tests-only".getBytes(StandardCharsets.UTF_8);
+
+    private final GatewayAuthConfig config = new GatewayAuthConfig();
+    private final UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+    private final TokenVersionRegistry tokenVersionRegistry = mock(TokenVersionRegistry.class);
+    private final GatewayHeaderAuthFilter filter = new GatewayHeaderAuthFilter(config, userDetailsService, tokenVersionRegistry);
+
+    @BeforeEach
+    void setUp() {
+        config.setEnabled(true);
+        config.setTrustedProxies(List.of("10.0.0.0/8"));
+        when(tokenVersionRegistry.isCurrent(anyLong(), anyLong())).thenReturn(true);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void trustedProxyAuthenticatesFromHeaders() throws Exception {
+        Authentication authentication = filter(request("10.1.2.3"));
+
+        assertThat(authentication).isNotNull();
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(42L);
+        assertThat(principal.getUsername()).isEqualTo("user@example.com");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("USER", "ADMIN");
+    }
+
+    @Test
+    void untrustedAddressIsIgnored() throws Exception {
+        assertThat(filter(request("192.168.1.5"))).isNull();
+    }
+
+    @Test
+    void nothingIsTrustedWithoutProxiesOrSecret() throws Exception {
+        config.setTrustedProxies(List.of());
+
+        assertThat(filter(request("10.1.2.3"))).isNull();
+    }
+
+    @Test
+    void staleTokenVersionIsRejected() throws Exception {
+        when(tokenVersionRegistry.isCurrent(42L, 3L)).thenReturn(false);
+        MockHttpServletRequest request = request("10.1.2.3");
+        request.addHeader(GatewayHeaderAuthFilter.TOKEN_VERSION_HEADER, "3");
+
+        assertThat(filter(request)).isNull();
+    }
+
+    @Test
+    void staleTokenVersionIsRejectedWhenPrincipalIsLoaded() throws Exception {
+        // The loaded principal carries the current version; the forwarded one must be checked instead
+        when(tokenVersionRegistry.isCurrent(42L, 3L)).thenReturn(false);
+        when(userDetailsService.loadUserById(42L)).thenReturn(
+                new CustomUserDetails(42L, "user@example.com", "user", List.of(), 4L));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.setRemoteAddr("10.1.2.3");
+        request.addHeader(GatewayHeaderAuthFilter.USER_ID_HEADER, "42");
+        request.addHeader(GatewayHeaderAuthFilter.TOKEN_VERSION_HEADER, "3");
+
+        assertThat(filter(request)).isNull();
+    }
+
+    @Test
+    void signedHeadersAreTrustedFromAnyAddress() throws Exception {
+        config.setTrustedProxies(List.of());
+        config.setHmacSecret(Base64.getEncoder().encodeToString(SECRET));
+        MockHttpServletRequest request = request("192.168.1.5");
+        sign(request, System.currentTimeMillis());
+
+        assertThat(filter(request)).isNotNull();
+    }
+
+    @Test
+    void staleOrTamperedSignatureIsRejected() throws Exception {
+        config.setTrustedProxies(List.of());
+        config.setHmacSecret(Base64.getEncoder().encodeToString(SECRET));
+
+        MockHttpServletRequest stale = request("10.1.2.3");
+        sign(stale, System.currentTimeMillis() - config.getMaxSkew().toMillis() - 1000);
+        assertThat(filter(stale)).isNull();
+
+        MockHttpServletRequest tampered = request("10.1.2.3");
+        sign(tampered, System.currentTimeMillis());
+        tampered.removeHeader(GatewayHeaderAuthFilter.USER_ROLES_HEADER);
+        tampered.addHeader(GatewayHeaderAuthFilter.USER_ROLES_HEADER, "USER,ADMIN,SUPER");
+        assertThat(filter(tampered)).isNull();
+    }
+
+    @Test
+    void malformedSecretFailsWhenBound() {
+        assertThatThrownBy(() -> config.setHmacSecret("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("hmac-secret");
+        assertThat(config.hmacKey()).isNull();
+    }
+
+    private Authentication filter(MockHttpServletRequest request) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader(GatewayHeaderAuthFilter.USER_ID_HEADER, "42");
+        request.addHeader(GatewayHeaderAuthFilter.USER_ROLES_HEADER, "USER,ADMIN");
+        request.addHeader(GatewayHeaderAuthFilter.USER_EMAIL_HEADER, "user@example.com");
+        request.addHeader(GatewayHeaderAuthFilter.USER_NAME_HEADER, "user");
+        return request;
+    }
+
+    private static void sign(MockHttpServletRequest request, long timestamp) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET, "HmacSHA256"));
+        String content = GatewayHeaderAuthFilter.signedContent(request, Long.toString(timestamp));
+        request.addHeader(GatewayHeaderAuthFilter.TIMESTAMP_HEADER, Long.toString(timestamp));
+        request.addHeader(GatewayHeaderAuthFilter.SIGNATURE_HEADER,
+                Base64.getEncoder().encodeToString(mac.doFinal(content.getBytes(StandardCharsets.UTF_8))));
+    }
+}
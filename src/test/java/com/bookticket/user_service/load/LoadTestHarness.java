@@ -0,0 +1,178 @@
+package com.bookticket.user_service.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.stat.Statistics;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives concurrent HTTP workloads against a running app and collects latency percentiles,
+ * status codes and the number of JDBC statements each workload caused.
+ */
+final class LoadTestHarness {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final Statistics statistics;
+
+    LoadTestHarness(int port, Statistics statistics) {
+        this.baseUrl = "http://localhost:" + port;
+        this.statistics = statistics;
+    }
+
+    HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    static HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(body));
+        } catch (IOException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    static Map<?, ?> readJson(HttpResponse<String> response) {
+        try {
+            return OBJECT_MAPPER.readValue(response.body(), Map.class);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    /**
+     * Runs {@code clients} concurrent clients, each sending {@code requestsPerClient} requests built by the script.
+     */
+    WorkloadResult run(String name, int clients, int requestsPerClient, ClientScript script) throws Exception {
+        statistics.clear();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        Map<Integer, AtomicInteger> statusCounts = new ConcurrentHashMap<>();
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+
+        long started = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int clientIndex = c;
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[requestsPerClient];
+                for (int i = 0; i < requestsPerClient; i++) {
+                    HttpRequest request = script.next(clientIndex, i);
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        latencies[i] = System.nanoTime() - start;
+                        statusCounts.computeIfAbsent(response.statusCode(), code -> new AtomicInteger()).incrementAndGet();
+                        script.onResponse(clientIndex, response);
+                    } catch (IOException ex) {
+                        latencies[i] = System.nanoTime() - start;
+                        failures.incrementAndGet();
+                    }
+                }
+                return latencies;
+            }));
+        }
+
+        long[] latencies = new long[clients * requestsPerClient];
+        int n = 0;
+        for (Future<long[]> future : futures) {
+            for (long latency : future.get()) {
+                latencies[n++] = latency;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        executor.shutdown();
+        Arrays.sort(latencies);
+
+        Map<Integer, Integer> statuses = new TreeMap<>();
+        statusCounts.forEach((code, count) -> statuses.put(code, count.get()));
+        return new WorkloadResult(name, clients, latencies, elapsedNanos, statuses, failures.get(),
+                statistics.getPrepareStatementCount());
+    }
+
+    static void writeReport(Path output, Map<String, Object> header, List<WorkloadResult> results) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>(header);
+        Map<String, Object> workloads = new LinkedHashMap<>();
+        for (WorkloadResult result : results) {
+            workloads.put(result.name(), result.toReport());
+        }
+        report.put("workloads", workloads);
+        Files.createDirectories(output.getParent());
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+    }
+
+    interface ClientScript {
+        HttpRequest next(int clientIndex, int iteration);
+
+        default void onResponse(int clientIndex, HttpResponse<String> response) {
+        }
+    }
+
+    record WorkloadResult(
+            String name,
+            int clients,
+            long[] sortedLatenciesNanos,
+            long elapsedNanos,
+            Map<Integer, Integer> statusCounts,
+            int transportFailures,
+            long dbStatements
+    ) {
+        int requests() {
+            return sortedLatenciesNanos.length;
+        }
+
+        int errors() {
+            int errors = transportFailures;
+            for (Map.Entry<Integer, Integer> entry : statusCounts.entrySet()) {
+                if (entry.getKey() >= 400) {
+                    errors += entry.getValue();
+                }
+            }
+            return errors;
+        }
+
+        double percentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile * sortedLatenciesNanos.length) - 1;
+            return sortedLatenciesNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("clients", clients);
+            report.put("requests", requests());
+            report.put("errors", errors());
+            report.put("errorRate", requests() == 0 ? 0.0 : (double) errors() / requests());
+            report.put("throughputPerSec", requests() * 1_000_000_000L / Math.max(1, elapsedNanos));
+            report.put("p50Ms", percentileMillis(0.50));
+            report.put("p95Ms", percentileMillis(0.95));
+            report.put("p99Ms", percentileMillis(0.99));
+            report.put("statusCounts", statusCounts);
+            report.put("dbStatements", dbStatements);
+            report.put("dbStatementsPerRequest", requests() == 0 ? 0.0 : (double) dbStatements / requests());
+            return report;
+        }
+    }
+}
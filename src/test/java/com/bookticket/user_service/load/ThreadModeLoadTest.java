@@ -0,0 +1,133 @@
+package com.bookticket.user_service.load;
+
+import com.bookticket.user_service.entity.User;
+import com.bookticket.user_service.enums.UserRole;
+import com.bookticket.user_service.load.LoadTestHarness.WorkloadResult;
+import com.bookticket.user_service.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires concurrent email-by-id requests and records p99 latency, the peak number of requests in flight
+ * on the server and the peak number of JDBC connections in use, which bounds throughput once the
+ * worker cap is gone. Run once per thread mode and diff the files under target/load-test:
+ * <pre>
+ * mvn -P load-test test -Dtest=ThreadModeLoadTest
+ * mvn -P load-test,java21 test -Dtest=ThreadModeLoadTest -Dspring.threads.virtual.enabled=true
+ * </pre>
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "loadtest"})
+class ThreadModeLoadTest {
+    private static final int USERS = 200;
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 50;
+
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger PEAK_IN_FLIGHT = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void emailByIdUnderConcurrency() throws Exception {
+        List<Long> userIds = seedUsers();
+        LoadTestHarness harness = new LoadTestHarness(port,
+                entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        HikariPoolMXBean poolMXBean = pool.getHikariPoolMXBean();
+        AtomicInteger peakConnections = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(
+                () -> peakConnections.accumulateAndGet(poolMXBean.getActiveConnections(), Math::max),
+                0, 1, TimeUnit.MILLISECONDS);
+        WorkloadResult result;
+        try {
+            result = harness.run("email-by-id", CLIENTS, REQUESTS_PER_CLIENT, (client, i) ->
+                    harness.request("/api/v1/users/" + userIds.get((client + i) % userIds.size()) + "/email").GET().build());
+        } finally {
+            sampler.shutdownNow();
+        }
+
+        String mode = Boolean.getBoolean("spring.threads.virtual.enabled") ? "virtual" : "platform";
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("mode", mode);
+        header.put("javaVersion", Runtime.version().feature());
+        header.put("maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        header.put("peakConcurrentRequests", PEAK_IN_FLIGHT.get());
+        header.put("peakActiveConnections", peakConnections.get());
+        header.put("maxPoolSize", pool.getMaximumPoolSize());
+        LoadTestHarness.writeReport(Path.of("target", "load-test", "thread-mode-" + mode + ".json"), header, List.of(result));
+
+        assertThat(result.errors()).isZero();
+    }
+
+    private List<Long> seedUsers() {
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("load_user_" + i);
+            user.setEmail("load.user." + i + "@example.com");
+            user.setPassword("not-used-by-this-test");
+            user.setRoles(Set.of(UserRole.USER));
+            users.add(user);
+        }
+        return userRepository.saveAll(users).stream().map(User::getId).toList();
+    }
+
+    @TestConfiguration
+    static class ConcurrencyProbeConfig {
+        @Bean
+        FilterRegistrationBean<Filter> concurrencyProbe() {
+            Filter probe = (request, response, chain) -> {
+                PEAK_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    IN_FLIGHT.decrementAndGet();
+                }
+            };
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(probe);
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.bookticket.user_service.load;
+
+import com.bookticket.user_service.entity.User;
+import com.bookticket.user_service.enums.UserRole;
+import com.bookticket.user_service.load.LoadTestHarness.ClientScript;
+import com.bookticket.user_service.load.LoadTestHarness.WorkloadResult;
+import com.bookticket.user_service.repository.UserRepository;
+import com.bookticket.user_service.service.CustomUserDetails;
+import com.bookticket.user_service.utils.JwtUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds users into the in-memory Postgres stand-in and runs the workloads we see in production,
+ * one after another so each gets its own latency and query-count figures. The report is written
+ * to target/load-test/user-service-load.json for diffing between releases:
+ * <pre>
+ * mvn -P load-test test -Dtest=UserServiceLoadTest [-Dloadtest.users=5000]
+ * </pre>
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "loadtest"})
+class UserServiceLoadTest {
+    private static final String PASSWORD = "loadtest-password";
+    private static final int CHURN_CLIENTS = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void mixedWorkloads() throws Exception {
+        int userCount = Integer.getInteger("loadtest.users", 1000);
+        List<User> users = seedUsers(userCount);
+        List<String> tokens = users.stream()
+                .map(user -> jwtUtils.issueToken(new CustomUserDetails(user)).token())
+                .toList();
+        LoadTestHarness harness = new LoadTestHarness(port,
+                entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+
+        List<WorkloadResult> results = new ArrayList<>();
+        results.add(harness.run("login-storm", 50, 10, (client, i) -> {
+            User user = users.get((client * 10 + i) % userCount);
+            return harness.request("/api/v1/auth/login")
+                    .POST(LoadTestHarness.json(Map.of("email", user.getEmail(), "password", PASSWORD)))
+                    .build();
+        }));
+        results.add(harness.run("email-by-id", 200, 50, (client, i) -> {
+            User user = users.get((client * 50 + i) % userCount);
+            return harness.request("/api/v1/users/" + user.getId() + "/email").GET().build();
+        }));
+        results.add(harness.run("email-by-id-batch", 50, 20, (client, i) -> {
+            List<Long> ids = new ArrayList<>(100);
+            for (int k = 0; k < 100; k++) {
+                ids.add(users.get((client * 100 + i * 7 + k) % userCount).getId());
+            }
+            return harness.request("/api/v1/users/emails")
+                    .POST(LoadTestHarness.json(Map.of("userIds", ids)))
+                    .build();
+        }));
+        results.add(harness.run("me", 200, 50, (client, i) -> harness.request("/api/v1/users/me")
+                .header("Authorization", "Bearer " + tokens.get((client * 50 + i) % (userCount - CHURN_CLIENTS)))
+                .GET()
+                .build()));
+        results.add(harness.run("update-churn", CHURN_CLIENTS, 25, updateChurn(harness, users, tokens)));
+
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("generatedAt", Instant.now().toString());
+        header.put("users", userCount);
+        header.put("javaVersion", Runtime.version().feature());
+        header.put("maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        LoadTestHarness.writeReport(Path.of("target", "load-test", "user-service-load.json"), header, results);
+
+        for (WorkloadResult result : results) {
+            assertThat(result.transportFailures()).as(result.name()).isZero();
+        }
+    }
+
+    // Each churn client owns one user and keeps using the fresh token every update returns
+    private static ClientScript updateChurn(LoadTestHarness harness, List<User> users, List<String> tokens) {
+        int firstChurnUser = users.size() - CHURN_CLIENTS;
+        String[] currentTokens = new String[CHURN_CLIENTS];
+        for (int c = 0; c < CHURN_CLIENTS; c++) {
+            currentTokens[c] = tokens.get(firstChurnUser + c);
+        }
+        return new ClientScript() {
+            @Override
+            public HttpRequest next(int client, int iteration) {
+                return harness.request("/api/v1/users/update")
+                        .header("Authorization", "Bearer " + currentTokens[client])
+                        .PUT(LoadTestHarness.json(Map.of("username", "churn_" + client + "_" + iteration)))
+                        .build();
+            }
+
+            @Override
+            public void onResponse(int client, HttpResponse<String> response) {
+                if (response.statusCode() == 200) {
+                    currentTokens[client] = (String) LoadTestHarness.readJson(response).get("token");
+                }
+            }
+        };
+    }
+
+    private List<User> seedUsers(int count) {
+        // One hash for every account keeps seeding fast; login cost is unaffected
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("load_user_" + i);
+            user.setEmail("load.user." + i + "@example.com");
+            user.setPassword(encodedPassword);
+            user.setRoles(Set.of(UserRole.USER));
+            users.add(user);
+        }
+        return userRepository.saveAll(users);
+    }
+}
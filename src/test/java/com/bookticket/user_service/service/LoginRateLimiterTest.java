@@ -0,0 +1,131 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.configuration.LoginRateLimitConfig;
+import com.bookticket.user_service.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+    private static final int ACCOUNT_CAPACITY = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentGuessesCannotExceedTheAccountBucket() throws Exception {
+        LoginRateLimiter limiter = limiter();
+        int threads = 64;
+        CountDownLatch start = new CountDownLatch(1);
+        // Holds every admitted attempt inside "BCrypt" until all threads have tried
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> attempts = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                MockHttpServletRequest request = new MockHttpServletRequest();
+                request.setRemoteAddr("203.0.113." + i);
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        limiter.attemptLogin(request, "Victim@Example.com", () -> {
+                            admitted.incrementAndGet();
+                            awaitQuietly(release);
+                            throw new BadCredentialsException("Bad credentials");
+                        });
+                    } catch (TooManyRequestsException | BadCredentialsException ex) {
+                        // expected
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (admitted.get() < ACCOUNT_CAPACITY && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(admitted.get()).isEqualTo(ACCOUNT_CAPACITY);
+        assertThat(meterRegistry.counter("auth.login.rate_limited", "limit", "account").count())
+                .isEqualTo(threads - ACCOUNT_CAPACITY);
+    }
+
+    @Test
+    void successfulLoginsAreRefunded() {
+        LoginRateLimiter limiter = limiter();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        for (int i = 0; i < ACCOUNT_CAPACITY * 3; i++) {
+            assertThat(limiter.attemptLogin(request, "user@example.com", () -> "token")).isEqualTo("token");
+        }
+    }
+
+    @Test
+    void failedLoginsExhaustTheAccountAndReportRetryAfter() {
+        LoginRateLimiter limiter = limiter();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        for (int i = 0; i < ACCOUNT_CAPACITY; i++) {
+            assertThatThrownBy(() -> limiter.attemptLogin(request, "user@example.com", () -> {
+                throw new BadCredentialsException("Bad credentials");
+            })).isInstanceOf(BadCredentialsException.class);
+        }
+
+        assertThatThrownBy(() -> limiter.attemptLogin(request, "USER@example.com ", () -> "token"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        ex -> assertThat(ex.getRetryAfterSeconds()).isBetween(1L, Duration.ofHours(1).toSeconds()));
+    }
+
+    @Test
+    void clientAddressComesFromForwardedForOnlyBehindATrustedProxy() {
+        LoginRateLimitConfig config = new LoginRateLimitConfig();
+        config.setTrustedProxies(List.of("10.0.0.0/8"));
+        LoginRateLimiter limiter = new LoginRateLimiter(config, meterRegistry);
+
+        MockHttpServletRequest viaGateway = new MockHttpServletRequest();
+        viaGateway.setRemoteAddr("10.0.0.5");
+        viaGateway.addHeader("X-Forwarded-For", "198.51.100.7, 203.0.113.9, 10.0.0.8");
+        assertThat(limiter.clientAddress(viaGateway)).isEqualTo("203.0.113.9");
+
+        MockHttpServletRequest direct = new MockHttpServletRequest();
+        direct.setRemoteAddr("203.0.113.20");
+        direct.addHeader("X-Forwarded-For", "198.51.100.7");
+        assertThat(limiter.clientAddress(direct)).isEqualTo("203.0.113.20");
+    }
+
+    private LoginRateLimiter limiter() {
+        LoginRateLimitConfig config = new LoginRateLimitConfig();
+        config.setAccountCapacity(ACCOUNT_CAPACITY);
+        config.setAccountRefill(Duration.ofHours(1));
+        return new LoginRateLimiter(config, meterRegistry);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
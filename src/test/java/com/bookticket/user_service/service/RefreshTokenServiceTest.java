@@ -0,0 +1,98 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.configuration.JwtConfig;
+import com.bookticket.user_service.dto.JwtResponse;
+import com.bookticket.user_service.entity.RefreshToken;
+import com.bookticket.user_service.repository.RefreshTokenRepository;
+import com.bookticket.user_service.utils.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+    private static final CustomUserDetails USER = new CustomUserDetails(7L, "user@example.com", "user", List.of(), 0L);
+
+    // Backs the mocked repository so the service sees its own writes
+    private final List<RefreshToken> stored = new ArrayList<>();
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+    private final JwtUtils jwtUtils = mock(JwtUtils.class);
+    private final JwtConfig jwtConfig = new JwtConfig();
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            stored.add(token);
+            return token;
+        });
+        when(repository.findByTokenHash(anyString())).thenAnswer(invocation -> stored.stream()
+                .filter(token -> token.getTokenHash().equals(invocation.getArgument(0)))
+                .findFirst());
+        when(repository.deleteByFamilyId(anyString())).thenAnswer(invocation -> {
+            int before = stored.size();
+            stored.removeIf(token -> token.getFamilyId().equals(invocation.getArgument(0)));
+            return before - stored.size();
+        });
+        when(userDetailsService.loadUserById(7L)).thenReturn(USER);
+        when(jwtUtils.issueToken(USER)).thenAnswer(invocation -> new JwtResponse("access-" + stored.size(), 900_000));
+        service = new RefreshTokenService(repository, userDetailsService, jwtUtils, jwtConfig);
+    }
+
+    @Test
+    void refreshRotatesWithinTheFamily() {
+        JwtResponse login = service.issueTokens(USER);
+
+        JwtResponse refreshed = service.refresh(login.refreshToken());
+
+        assertThat(refreshed.token()).isNotNull();
+        assertThat(refreshed.refreshToken()).isNotNull().isNotEqualTo(login.refreshToken());
+        assertThat(stored).hasSize(2);
+        assertThat(stored.get(0).isUsed()).isTrue();
+        assertThat(stored.get(1).isUsed()).isFalse();
+        assertThat(stored.get(1).getFamilyId()).isEqualTo(stored.get(0).getFamilyId());
+        // Only the hash is persisted
+        assertThat(stored).extracting(RefreshToken::getTokenHash).doesNotContain(login.refreshToken(), refreshed.refreshToken());
+    }
+
+    @Test
+    void replayingAUsedTokenRevokesTheFamily() {
+        JwtResponse login = service.issueTokens(USER);
+        JwtResponse refreshed = service.refresh(login.refreshToken());
+        JwtResponse otherSession = service.issueTokens(USER);
+
+        assertThatThrownBy(() -> service.refresh(login.refreshToken())).isInstanceOf(BadCredentialsException.class);
+
+        // The legitimate successor is gone too; the unrelated login survives
+        assertThatThrownBy(() -> service.refresh(refreshed.refreshToken())).isInstanceOf(BadCredentialsException.class);
+        assertThat(service.refresh(otherSession.refreshToken()).refreshToken()).isNotNull();
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        JwtResponse login = service.issueTokens(USER);
+        stored.get(0).setExpiresAt(Instant.now().minusSeconds(1));
+
+        assertThatThrownBy(() -> service.refresh(login.refreshToken()))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessageContaining("expired");
+        assertThat(stored.get(0).isUsed()).isFalse();
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        assertThatThrownBy(() -> service.refresh("not-a-token")).isInstanceOf(BadCredentialsException.class);
+    }
+}
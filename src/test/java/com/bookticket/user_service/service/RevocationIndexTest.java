@@ -0,0 +1,83 @@
+package com.bookticket.user_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RevocationIndexTest {
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void emptyIndexAcceptsEveryVersion() {
+        assertThat(RevocationIndex.EMPTY.size()).isZero();
+        assertThat(RevocationIndex.EMPTY.minVersion(1L)).isZero();
+        assertThat(RevocationIndex.EMPTY.minVersion(0L)).isZero();
+        assertThat(RevocationIndex.EMPTY.minVersion(-1L)).isZero();
+    }
+
+    @Test
+    void onlyPositiveUserIdsCanBeStored() {
+        assertThatThrownBy(() -> RevocationIndex.EMPTY.with(0L, 1L, NOW)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RevocationIndex.EMPTY.with(-5L, 1L, NOW)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void lookupsOfAbsentIdsStopAtAnEmptySlot() {
+        RevocationIndex index = RevocationIndex.EMPTY.with(7L, 3L, NOW);
+
+        assertThat(index.minVersion(7L)).isEqualTo(3L);
+        assertThat(index.minVersion(8L)).isZero();
+        // 0 is the empty-slot marker and must never read as a stored user
+        assertThat(index.minVersion(0L)).isZero();
+        assertThat(index.minVersion(Long.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    void collidingIdsAreAllRetrievable() {
+        RevocationIndex index = RevocationIndex.EMPTY;
+        // Far more entries than the initial capacity, so probe chains wrap and the table grows repeatedly
+        for (long userId = 1; userId <= 2_000; userId++) {
+            index = index.with(userId * 1_024, userId, NOW + userId);
+        }
+
+        assertThat(index.size()).isEqualTo(2_000);
+        for (long userId = 1; userId <= 2_000; userId++) {
+            assertThat(index.minVersion(userId * 1_024)).isEqualTo(userId);
+            assertThat(index.minVersion(userId * 1_024 + 1)).isZero();
+        }
+    }
+
+    @Test
+    void repeatedRevocationsMergeByMax() {
+        RevocationIndex index = RevocationIndex.EMPTY
+                .with(42L, 5L, NOW + 100)
+                .with(42L, 3L, NOW + 500)
+                .with(42L, 4L, NOW + 50);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.minVersion(42L)).isEqualTo(5L);
+        // The latest expiry wins too, so the lower-version update still extends the entry
+        assertThat(index.withoutExpired(NOW + 499).minVersion(42L)).isEqualTo(5L);
+        assertThat(index.withoutExpired(NOW + 500).minVersion(42L)).isZero();
+    }
+
+    @Test
+    void withoutExpiredDropsOnlyExpiredEntries() {
+        RevocationIndex index = RevocationIndex.EMPTY
+                .with(1L, 2L, NOW)
+                .with(2L, 3L, NOW + 1)
+                .with(3L, 4L, NOW + 2);
+
+        RevocationIndex pruned = index.withoutExpired(NOW);
+
+        assertThat(pruned.size()).isEqualTo(2);
+        assertThat(pruned.minVersion(1L)).isZero();
+        assertThat(pruned.minVersion(2L)).isEqualTo(3L);
+        assertThat(pruned.minVersion(3L)).isEqualTo(4L);
+        // The source is immutable
+        assertThat(index.minVersion(1L)).isEqualTo(2L);
+        assertThat(pruned.withoutExpired(NOW)).isSameAs(pruned);
+        assertThat(index.withoutExpired(NOW + 2).size()).isZero();
+    }
+}
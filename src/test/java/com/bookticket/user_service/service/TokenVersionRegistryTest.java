@@ -0,0 +1,80 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.configuration.JwtConfig;
+import com.bookticket.user_service.entity.TokenRevocation;
+import com.bookticket.user_service.repository.TokenRevocationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenVersionRegistryTest {
+    private final TokenRevocationRepository repository = mock(TokenRevocationRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenVersionRegistry registry = new TokenVersionRegistry(repository, jwtConfig(), meterRegistry);
+
+    @Test
+    void replaysUnexpiredRevocationsOnStartup() {
+        Instant now = Instant.now();
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                revocation(7L, 3L, now.plus(Duration.ofMinutes(5))),
+                revocation(7L, 2L, now.plus(Duration.ofMinutes(10))),
+                revocation(9L, 1L, now.plus(Duration.ofMinutes(5)))));
+
+        registry.afterSingletonsInstantiated();
+
+        assertThat(registry.isCurrent(7L, 2L)).isFalse();
+        assertThat(registry.isCurrent(7L, 3L)).isTrue();
+        assertThat(registry.isCurrent(9L, 0L)).isFalse();
+        assertThat(registry.isCurrent(11L, 0L)).isTrue();
+        assertThat(meterRegistry.get("auth.revocations.active").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void pollPicksUpRevocationsFromOtherInstances() {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        registry.afterSingletonsInstantiated();
+        when(repository.findByCreatedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(
+                revocation(5L, 4L, Instant.now().plus(Duration.ofMinutes(5)))));
+
+        registry.pollRevocations();
+
+        assertThat(registry.isCurrent(5L, 3L)).isFalse();
+        assertThat(registry.isCurrent(5L, 4L)).isTrue();
+    }
+
+    @Test
+    void revocationAppliesOnlyAfterCommit() {
+        when(repository.save(any(TokenRevocation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.revokeBefore(3L, 2L);
+
+            assertThat(registry.isCurrent(3L, 1L)).isTrue();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(registry.isCurrent(3L, 1L)).isFalse();
+            assertThat(registry.isCurrent(3L, 2L)).isTrue();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static TokenRevocation revocation(long userId, long minVersion, Instant expiresAt) {
+        return new TokenRevocation(null, userId, minVersion, Instant.now(), expiresAt);
+    }
+
+    private static JwtConfig jwtConfig() {
+        JwtConfig config = new JwtConfig();
+        config.setJwtExpiration(Duration.ofMinutes(15).toMillis());
+        return config;
+    }
+}
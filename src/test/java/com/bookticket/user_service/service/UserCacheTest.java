@@ -0,0 +1,47 @@
+package com.bookticket.user_service.service;
+
+import com.bookticket.user_service.configuration.UserCacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+    private static final CachedUser STALE = new CachedUser(1L, "user", "user@example.com", 1, 0L);
+
+    private final UserCache cache = new UserCache(new UserCacheConfig(), new SimpleMeterRegistry());
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        // The row is read, then the writer commits and evicts before the reader puts it
+        Optional<CachedUser> loaded = cache.getById(1L, () -> {
+            cache.invalidate(1L, "user@example.com");
+            return Optional.of(STALE);
+        });
+
+        assertThat(loaded).contains(STALE);
+        assertThat(cache.peekById(1L)).isEmpty();
+    }
+
+    @Test
+    void undisturbedLoadIsCached() {
+        cache.getByEmail("User@Example.com", () -> Optional.of(STALE));
+
+        assertThat(cache.peekById(1L)).contains(STALE);
+        assertThat(cache.getByEmail("user@example.com", Optional::empty)).contains(STALE);
+    }
+
+    @Test
+    void putAfterAnOverlappingInvalidationIsDropped() {
+        long loadedAt = cache.generation();
+        cache.invalidate(1L, "user@example.com");
+
+        assertThat(cache.put(STALE, loadedAt)).isSameAs(STALE);
+        assertThat(cache.peekById(1L)).isEmpty();
+
+        cache.put(STALE, cache.generation());
+        assertThat(cache.peekById(1L)).contains(STALE);
+    }
+}